@@ -0,0 +1,29 @@
+package com.example.employeeapi.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller method may run per call
+ * Exceeding it logs a warning, or fails the request when fail is set or
+ * app.statement-budget.mode is fail; requests other than GET, HEAD and OPTIONS are never
+ * failed, since whatever they wrote has committed by the time the count is known.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    /**
+     * Statements allowed, counted from the controller call until it returns
+     * The most any fixed request shape runs without sharding; work that grows with the request
+     * is added by the handler through StatementBudgetAspect.allow.
+     */
+    int value();
+
+    /**
+     * Fail the request with a 500 instead of logging when the budget is exceeded
+     */
+    boolean fail() default false;
+}
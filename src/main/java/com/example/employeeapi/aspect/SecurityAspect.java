@@ -4,6 +4,9 @@ import com.example.employeeapi.annotation.RequireRole;
 import com.example.employeeapi.entity.AuditLog;
 import com.example.employeeapi.entity.User;
 import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.jfr.AuditEvent;
+import com.example.employeeapi.jfr.AuthorizationEvent;
+import com.example.employeeapi.jfr.HttpRequestRecordingFilter;
 import com.example.employeeapi.repository.AuditLogRepository;
 import com.example.employeeapi.repository.UserRepository;
 import com.example.employeeapi.security.JwtUtil;
@@ -18,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -60,8 +64,11 @@ public class SecurityAspect {
      */
     @Before("@annotation(requireRole)")
     public void checkRoleAccess(JoinPoint joinPoint, RequireRole requireRole) {
-        logger.debug("Checking role access for method: {}", joinPoint.getSignature().getName());
-        
+        AuthorizationEvent event = new AuthorizationEvent();
+        event.begin();
+        HttpServletRequest request = null;
+        String username = null;
+        boolean granted = false;
         try {
             // Get current HTTP request
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -70,26 +77,25 @@ public class SecurityAspect {
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
             }
             
-            HttpServletRequest request = attributes.getRequest();
+            request = attributes.getRequest();
             
             // Extract JWT token from Authorization header
             String authHeader = request.getHeader("Authorization");
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                logger.warn("No valid Authorization header found");
+                logger.atWarn().addKeyValue("method", () -> joinPoint.getSignature().getName())
+                        .log("No valid Authorization header found");
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
             }
             
             String token = authHeader.substring(7); // Remove "Bearer " prefix
             
             // Extract username and roles from JWT token
-            String username = jwtUtil.extractUsername(token);
+            username = jwtUtil.extractUsername(token);
             Set<Role> userRoles = jwtUtil.extractRoles(token);
             
-            logger.debug("User: {} has roles: {}", username, userRoles);
-            
             // Validate token
             if (!jwtUtil.validateToken(token, username)) {
-                logger.warn("Invalid JWT token for user: {}", username);
+                logger.atWarn().addKeyValue("user", username).log("Invalid JWT token");
                 throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
             }
             
@@ -98,18 +104,35 @@ public class SecurityAspect {
             boolean hasAccess = checkUserRoles(userRoles, requiredRoles, requireRole.requireAll());
             
             if (!hasAccess) {
-                logger.warn("Access denied for user: {} to method: {}. Required roles: {}, User roles: {}", 
-                    username, joinPoint.getSignature().getName(), Arrays.toString(requiredRoles), userRoles);
+                // Role sets are only turned into strings if the event is actually logged
+                logger.atWarn().addKeyValue("user", username)
+                        .addKeyValue("method", () -> joinPoint.getSignature().getName())
+                        .addKeyValue("required", () -> Arrays.toString(requiredRoles))
+                        .addKeyValue("roles", () -> String.valueOf(userRoles))
+                        .log("Access denied");
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, requireRole.message());
             }
             
-            logger.debug("Access granted for user: {} to method: {}", username, joinPoint.getSignature().getName());
+            logger.atDebug().addKeyValue("user", username)
+                    .addKeyValue("method", () -> joinPoint.getSignature().getName())
+                    .addKeyValue("roles", () -> String.valueOf(userRoles))
+                    .log("Access granted");
+            granted = true;
             
         } catch (ResponseStatusException e) {
             throw e; // Re-throw HTTP status exceptions
         } catch (Exception e) {
             logger.error("Error during role validation", e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Authorization check failed");
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setUser(username);
+                event.setEndpoint(request != null ? HttpRequestRecordingFilter.endpointOf(request) : null);
+                event.setHandler(joinPoint.getSignature().toShortString());
+                event.setGranted(granted);
+                event.commit();
+            }
         }
     }
 
@@ -160,6 +183,13 @@ public class SecurityAspect {
 
     @AfterReturning(value = "transactionMethods()", returning = "result")
     public void logTransaction(JoinPoint joinPoint, Object result) {
+        // Rejected writes return normally too: a 409 from the controller, false for a missing id
+        if (result instanceof ResponseEntity<?> response && !response.getStatusCode().is2xxSuccessful()
+                || Boolean.FALSE.equals(result)) {
+            return;
+        }
+        AuditEvent event = new AuditEvent();
+        event.begin();
         try {
             String methodName = joinPoint.getSignature().getName();
             //String action = methodName.startsWith("createEmployee") ? "CREATE" : "UPDATE";
@@ -174,11 +204,19 @@ public class SecurityAspect {
 
             Object entity = joinPoint.getArgs()[0]; // assuming first arg is entity
             Long entityId = null;
+            String entityName = entity.getClass().getSimpleName();
 
-            // if entity has getId() method
-            try {
-                entityId = (Long) entity.getClass().getMethod("getId").invoke(entity);
-            } catch (Exception ignored) {}
+            if (entity instanceof Long id) {
+                // updateEmployee(Long id, ...) and deleteEmployee(Long id) pass the employee's id rather than
+                // the entity; both are recorded against Employee with that id
+                entityId = id;
+                entityName = "Employee";
+            } else {
+                // if entity has getId() method
+                try {
+                    entityId = (Long) entity.getClass().getMethod("getId").invoke(entity);
+                } catch (Exception ignored) {}
+            }
 
 
             String username = "system";
@@ -193,14 +231,25 @@ public class SecurityAspect {
 
             AuditLog log = new AuditLog(
                     action,
-                    entity.getClass().getSimpleName(),
+                    entityName,
                     entityId,
                     finalUsername
             );
 
             auditLogRepository.save(log);
 
-            logger.info("Audit log created for {} on {} by user: {}", action, entity.getClass().getSimpleName(), finalUsername);
+            logger.atInfo().addKeyValue("action", action).addKeyValue("entity", entityName)
+                    .addKeyValue("entityId", entityId).addKeyValue("user", finalUsername)
+                    .log("Audit log created");
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.setAction(action);
+                event.setEntity(entityName);
+                event.setEntityId(entityId != null ? entityId : -1);
+                event.setUser(finalUsername);
+                event.commit();
+            }
 
         } catch (Exception e) {
             logger.error("Failed to log transaction", e);
@@ -0,0 +1,55 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.limiter.AdaptiveConcurrencyLimiter;
+import com.example.employeeapi.limiter.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.concurrency-limit.tolerance:2.0}")
+    private double tolerance;
+
+    @Value("${app.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.concurrency-limit.baseline-window:500}")
+    private int baselineWindow;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter readConcurrencyLimiter(
+            @Value("${app.concurrency-limit.read.initial-limit:50}") int initialLimit,
+            @Value("${app.concurrency-limit.read.min-limit:10}") int minLimit,
+            @Value("${app.concurrency-limit.read.max-limit:180}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit,
+                tolerance, smoothing, baselineWindow);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter writeConcurrencyLimiter(
+            @Value("${app.concurrency-limit.write.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency-limit.write.min-limit:2}") int minLimit,
+            @Value("${app.concurrency-limit.write.max-limit:60}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit,
+                tolerance, smoothing, baselineWindow);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter readConcurrencyLimiter,
+            AdaptiveConcurrencyLimiter writeConcurrencyLimiter,
+            @Value("${app.concurrency-limit.read-priority-threshold:0.9}") double readPriorityThreshold) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readConcurrencyLimiter, writeConcurrencyLimiter, readPriorityThreshold));
+        // Shed load before authentication and controller work is done
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/api/*", "/auth/*");
+        return registration;
+    }
+}
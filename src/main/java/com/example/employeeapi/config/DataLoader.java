@@ -3,11 +3,12 @@ package com.example.employeeapi.config;
 import com.example.employeeapi.entity.Employee;
 import com.example.employeeapi.entity.User;
 import com.example.employeeapi.enums.Role;
-import com.example.employeeapi.repository.EmployeeRepository;
 import com.example.employeeapi.repository.UserRepository;
+import com.example.employeeapi.service.EmployeeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -19,16 +20,33 @@ public class DataLoader implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
 
+    // Goes through the service so sample rows land on the right shard when sharding is enabled
     @Autowired
-    private EmployeeRepository employeeRepository;
+    private EmployeeService employeeService;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${app.sample-data.enabled:true}")
+    private boolean sampleDataEnabled;
+
+    // Off in the fast-startup profile; instances behind the autoscaler never need sample rows, but
+    // still need the users to log in with
+    @Value("${app.sample-data.employees:true}")
+    private boolean sampleEmployeesEnabled;
+
     @Override
     public void run(String... args) throws Exception {
+        if (!sampleDataEnabled) {
+            logger.info("Sample data disabled, skipping");
+            return;
+        }
         loadSampleUsers();
-        loadSampleEmployees();
+        if (sampleEmployeesEnabled) {
+            loadSampleEmployees();
+        } else {
+            logger.info("Sample employees disabled, skipping");
+        }
     }
 
     private void loadSampleUsers() {
@@ -114,7 +132,7 @@ public class DataLoader implements CommandLineRunner {
 
     private void loadSampleEmployees() {
         // Check if employees already exist
-        if (employeeRepository.count() > 0) {
+        if (employeeService.getTotalEmployeeCount() > 0) {
             logger.info("Employees already exist, skipping sample data creation");
             return;
         }
@@ -129,11 +147,11 @@ public class DataLoader implements CommandLineRunner {
         Employee emp5 = new Employee("Charlie Wilson", "charlie.wilson@example.com", "Finance", new BigDecimal("70000.00"));
 
         // Save all employees
-        employeeRepository.save(emp1);
-        employeeRepository.save(emp2);
-        employeeRepository.save(emp3);
-        employeeRepository.save(emp4);
-        employeeRepository.save(emp5);
+        employeeService.createEmployee(emp1);
+        employeeService.createEmployee(emp2);
+        employeeService.createEmployee(emp3);
+        employeeService.createEmployee(emp4);
+        employeeService.createEmployee(emp5);
 
         logger.info("Sample employee data loaded successfully!");
     }
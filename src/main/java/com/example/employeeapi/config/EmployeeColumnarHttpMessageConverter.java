@@ -0,0 +1,214 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.entity.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes lists of employees (or sparse fieldset rows) in a compact length-prefixed columnar format.
+ *
+ * Layout, all integers big-endian:
+ * <pre>
+ * "EMPC" | version:u8 | rows:i32 | columns:i32
+ * per column: name (modified UTF-8) | type:u8 (1 = int64, 2 = decimal, 3 = string)
+ * per column: byteLength:i32 | values
+ *   int64   -> presence:u8 then i64 per row
+ *   decimal -> presence:u8 then scale:u8, unscaled:i64 (or -1 scale and a string for wide values)
+ *   string  -> length:i32 (-1 for null) then UTF-8 bytes
+ * </pre>
+ * Only offered when the client explicitly asks for {@link #MEDIA_TYPE}, and only for lists of employees or
+ * of sparse fieldset rows; any other body is answered with 406 Not Acceptable.
+ */
+public class EmployeeColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<?>> {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "vnd.employee.columnar");
+
+    private static final byte[] MAGIC = "EMPC".getBytes(StandardCharsets.US_ASCII);
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte TYPE_INT64 = 1;
+    private static final byte TYPE_DECIMAL = 2;
+    private static final byte TYPE_STRING = 3;
+
+    private static final List<Column> EMPLOYEE_COLUMNS = List.of(
+            new Column("id", TYPE_INT64, row -> ((Employee) row).getId()),
+            new Column("name", TYPE_STRING, row -> ((Employee) row).getName()),
+            new Column("email", TYPE_STRING, row -> ((Employee) row).getEmail()),
+            new Column("department", TYPE_STRING, row -> ((Employee) row).getDepartment()),
+            new Column("salary", TYPE_DECIMAL, row -> ((Employee) row).getSalary()),
+            new Column("version", TYPE_INT64, row -> ((Employee) row).getVersion()));
+
+    public EmployeeColumnarHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!supports(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        // Handlers declaring ResponseEntity<?> leave the element type open; their rows are checked when written
+        Class<?> element = type == null ? null : ResolvableType.forType(type).asCollection().getGeneric().resolve();
+        return element == null || element == Object.class
+                || Employee.class.isAssignableFrom(element) || Map.class.isAssignableFrom(element);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<?> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar format is write-only", inputMessage);
+    }
+
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar format is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(List<?> rows, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        // Checked before the body is opened, so nothing has been sent when the rows are refused
+        List<Column> columns = columnsFor(rows);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputMessage.getBody(), 64 * 1024));
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(rows.size());
+        out.writeInt(columns.size());
+        for (Column column : columns) {
+            out.writeUTF(column.name);
+            out.writeByte(column.type);
+        }
+
+        // One reusable scratch buffer so each column block can be length-prefixed
+        ByteArrayOutputStream block = new ByteArrayOutputStream(Math.max(64, rows.size() * 9));
+        DataOutputStream blockOut = new DataOutputStream(block);
+        for (Column column : columns) {
+            block.reset();
+            for (Object row : rows) {
+                writeValue(blockOut, column.type, column.accessor.apply(row));
+            }
+            blockOut.flush();
+            out.writeInt(block.size());
+            block.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private List<Column> columnsFor(List<?> rows) {
+        if (rows.isEmpty() || rows.get(0) instanceof Employee) {
+            requireAll(rows, Employee.class);
+            return EMPLOYEE_COLUMNS;
+        }
+        if (rows.get(0) instanceof Map<?, ?> first) {
+            requireAll(rows, Map.class);
+            List<Column> columns = new ArrayList<>();
+            for (Object key : first.keySet()) {
+                columns.add(new Column(String.valueOf(key), typeOf(rows, key), row -> ((Map<?, ?>) row).get(key)));
+            }
+            return columns;
+        }
+        throw notAcceptable();
+    }
+
+    private void requireAll(List<?> rows, Class<?> type) {
+        for (Object row : rows) {
+            if (!type.isInstance(row)) {
+                throw notAcceptable();
+            }
+        }
+    }
+
+    private static ResponseStatusException notAcceptable() {
+        return new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Columnar format only supports employee lists");
+    }
+
+    private byte typeOf(List<?> rows, Object key) {
+        for (Object row : rows) {
+            Object value = ((Map<?, ?>) row).get(key);
+            if (value instanceof Long || value instanceof Integer) {
+                return TYPE_INT64;
+            }
+            if (value instanceof BigDecimal) {
+                return TYPE_DECIMAL;
+            }
+            if (value != null) {
+                return TYPE_STRING;
+            }
+        }
+        return TYPE_STRING;
+    }
+
+    private void writeValue(DataOutputStream out, byte type, Object value) throws IOException {
+        switch (type) {
+            case TYPE_INT64 -> {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeLong(((Number) value).longValue());
+                }
+            }
+            case TYPE_DECIMAL -> {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    BigDecimal decimal = (BigDecimal) value;
+                    if (decimal.scale() >= 0 && decimal.scale() < 127 && decimal.unscaledValue().bitLength() < 64) {
+                        out.writeByte(decimal.scale());
+                        out.writeLong(decimal.unscaledValue().longValue());
+                    } else {
+                        out.writeByte(-1);
+                        writeString(out, decimal.toPlainString());
+                    }
+                }
+            }
+            default -> writeString(out, value == null ? null : value.toString());
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class Column {
+
+        private final String name;
+        private final byte type;
+        private final Function<Object, Object> accessor;
+
+        private Column(String name, byte type, Function<Object, Object> accessor) {
+            this.name = name;
+            this.type = type;
+            this.accessor = accessor;
+        }
+    }
+}
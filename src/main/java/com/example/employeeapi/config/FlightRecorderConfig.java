@@ -0,0 +1,34 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.jfr.HttpRequestRecordingFilter;
+import com.example.employeeapi.jfr.ServiceCallRecordingAspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Request and service-call events for Java Flight Recorder
+ * Both check whether a recording has the event enabled before doing any work; the security
+ * and audit events are emitted inline and are not affected by this switch.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.flight-recorder.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderConfig {
+
+    @Bean
+    public FilterRegistrationBean<HttpRequestRecordingFilter> httpRequestRecordingFilter() {
+        FilterRegistrationBean<HttpRequestRecordingFilter> registration =
+                new FilterRegistrationBean<>(new HttpRequestRecordingFilter());
+        // Just inside the concurrency limiter; rejected requests show up in its metrics instead
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.addUrlPatterns("/api/*", "/auth/*");
+        return registration;
+    }
+
+    @Bean
+    public ServiceCallRecordingAspect serviceCallRecordingAspect() {
+        return new ServiceCallRecordingAspect();
+    }
+}
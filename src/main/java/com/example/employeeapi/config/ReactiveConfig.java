@@ -0,0 +1,63 @@
+package com.example.employeeapi.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking connection pool for the reactive read API when {@code app.reactive.enabled} is true.
+ * Boot's R2DBC auto-configuration is excluded so its transaction manager cannot replace the JPA one;
+ * the reactive endpoints only read and need no transactions.
+ * The pool talks to one database directly, past shard and replica routing, so it refuses to start
+ * alongside either: by-id and department reads would miss rows on other shards, and reads would
+ * ignore replica lag and read-your-writes stickiness.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveConfig implements DisposableBean {
+
+    // Deliberately not a bean: a ConnectionFactory bean makes Boot back off from the JDBC DataSource
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${app.reactive.url}") String url,
+                                                 @Value("${app.reactive.max-pool-size:20}") int maxPoolSize,
+                                                 DataSourceProperties dataSourceProperties,
+                                                 Environment environment) {
+        if (environment.getProperty("app.sharding.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.reactive and app.sharding cannot be enabled together");
+        }
+        if (environment.getProperty("app.datasource.replicas.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.reactive and app.datasource.replicas cannot be enabled together");
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, dataSourceProperties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.getPassword())
+                .build();
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options);
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(maxPoolSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.routing.ReadYourWritesTracker;
+import com.example.employeeapi.routing.ReplicaLagMonitor;
+import com.example.employeeapi.routing.ReplicaNode;
+import com.example.employeeapi.routing.ReplicaRoutingDataSource;
+import com.example.employeeapi.routing.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with primary + replica routing when
+ * {@code app.datasource.replicas.enabled} is true. The primary comes from {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Node node : properties.getNodes()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + node.getName());
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.getUsername());
+            dataSource.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.getPassword());
+            dataSource.setMaximumPoolSize(node.getMaxPoolSize());
+            dataSource.setReadOnly(true);
+            // Do not block startup on a replica that is down; the lag monitor keeps it out of rotation
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaNode(node.getName(), dataSource, node.getWeight()));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas,
+                new ReadYourWritesTracker(properties.getStickyWindowMs()), meterRegistry);
+    }
+
+    // Connections are fetched lazily so routing sees the transaction's read-only flag
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReplicaRoutingProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, properties.getMaxLagMs(), meterRegistry);
+    }
+}
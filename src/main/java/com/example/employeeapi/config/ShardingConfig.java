@@ -0,0 +1,97 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.sharding.EmployeeEmailIndex;
+import com.example.employeeapi.sharding.ShardRebalancer;
+import com.example.employeeapi.sharding.ShardRouter;
+import com.example.employeeapi.sharding.ShardRoutingDataSource;
+import com.example.employeeapi.sharding.ShardSchemaInitializer;
+import com.example.employeeapi.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads the employees table over several databases by department when
+ * {@code app.sharding.enabled} is true. Shard 0 is {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties properties,
+                                                         Environment environment) {
+        if (environment.getProperty("app.datasource.replicas.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.sharding and app.datasource.replicas cannot be enabled together");
+        }
+        // Spring Boot defaults open-in-view to true; a request-scoped session would stay bound to the
+        // first shard's connection
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("app.sharding requires spring.jpa.open-in-view=false");
+        }
+        HikariDataSource shardZero = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        shardZero.setPoolName("shard-0");
+
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(shardZero);
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.getUsername());
+            dataSource.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaxPoolSize());
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // Connections are fetched lazily so routing sees the shard chosen inside the transaction
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties.getShards().size() + 1, properties.getDirectory(), properties.getIdStride());
+    }
+
+    @Bean
+    public EmployeeEmailIndex employeeEmailIndex(ShardRoutingDataSource shardRoutingDataSource,
+                                                 ShardingProperties properties) {
+        return new EmployeeEmailIndex(shardRoutingDataSource, properties.getEmailReservationTimeoutMs());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRoutingDataSource shardRoutingDataSource,
+                                           ShardRouter shardRouter,
+                                           EmployeeEmailIndex employeeEmailIndex,
+                                           ShardingProperties properties) {
+        return new ShardRebalancer(shardRoutingDataSource, shardRouter, employeeEmailIndex,
+                properties.getRebalanceBatchSize());
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+                                                         ShardRouter shardRouter,
+                                                         EmployeeEmailIndex employeeEmailIndex,
+                                                         ShardRebalancer shardRebalancer) {
+        return new ShardSchemaInitializer(shardRoutingDataSource, shardRouter, employeeEmailIndex, shardRebalancer);
+    }
+}
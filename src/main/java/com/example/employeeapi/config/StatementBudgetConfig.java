@@ -0,0 +1,56 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.statements.StatementBudgetAspect;
+import com.example.employeeapi.statements.StatementCounter;
+import com.example.employeeapi.statements.StatementCountingCallableInterceptor;
+import com.example.employeeapi.statements.StatementCountingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "app.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        StatementCounter counter = new StatementCounter();
+        return properties -> properties.put("hibernate.session_factory.statement_inspector", counter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountingFilter> statementCountingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.statement-budget.repeat-threshold:10}") int repeatThreshold) {
+        FilterRegistrationBean<StatementCountingFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountingFilter(meterRegistry, repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        // Async dispatches too, so streamed and deferred responses are recorded when they complete
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.addUrlPatterns("/api/*", "/auth/*");
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer statementCountingAsyncSupport() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new StatementCountingCallableInterceptor());
+            }
+        };
+    }
+
+    @Bean
+    public StatementBudgetAspect statementBudgetAspect(@Value("${app.statement-budget.mode:log}") String mode) {
+        return new StatementBudgetAspect("fail".equalsIgnoreCase(mode));
+    }
+}
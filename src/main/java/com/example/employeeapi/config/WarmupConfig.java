@@ -0,0 +1,27 @@
+package com.example.employeeapi.config;
+
+import com.example.employeeapi.security.JwtUtil;
+import com.example.employeeapi.warmup.WarmupProperties;
+import com.example.employeeapi.warmup.WarmupRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Holds readiness back until the instance has been warmed up when {@code app.warmup.enabled} is true
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public WarmupRunner warmupRunner(WarmupProperties properties, DataSource dataSource, JwtUtil jwtUtil,
+                                     MeterRegistry meterRegistry) {
+        return new WarmupRunner(properties, dataSource, jwtUtil, meterRegistry);
+    }
+}
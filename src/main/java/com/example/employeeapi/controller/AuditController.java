@@ -0,0 +1,97 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.annotation.RequireRole;
+import com.example.employeeapi.entity.AuditDailySummary;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.service.AuditService;
+import com.example.employeeapi.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Value("${app.audit.query.max-limit:500}")
+    private int queryMaxLimit;
+
+    // Query audit entries newest first; page with ?before={nextCursor} from the previous response
+    @GetMapping
+    @RequireRole({Role.ADMIN})
+    public ResponseEntity<?> queryAuditLogs(
+            @RequestParam(required = false) String entityName,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        Map<String, String> error = new HashMap<>();
+        if (limit < 1 || limit > queryMaxLimit) {
+            error.put("error", "Limit must be between 1 and " + queryMaxLimit);
+        } else if (from != null && to != null && !from.isBefore(to)) {
+            error.put("error", "from must be before to");
+        }
+        if (!error.isEmpty()) {
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+        AuditService.AuditPage page = auditService.queryAuditLogs(entityName, entityId, username,
+                action != null ? action.toUpperCase(Locale.ROOT) : null, from, to, before, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    // Daily per-entity/per-user roll-ups of audit entries older than the detail retention window
+    @GetMapping("/summary")
+    @RequireRole({Role.ADMIN})
+    public ResponseEntity<?> getDailySummaries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "from must not be after to");
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+        List<AuditDailySummary> summaries = auditService.getDailySummaries(from, to);
+        return new ResponseEntity<>(summaries, HttpStatus.OK);
+    }
+
+    // Stream audit log entries in [from, to) as CSV straight from a database cursor
+    @GetMapping(value = "/export", produces = "text/csv")
+    @RequireRole({Role.ADMIN})
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        StreamingResponseBody body = out -> exportService.exportAuditLogs(from, to, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-log.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.employeeapi.controller;
 
+import com.example.employeeapi.annotation.StatementBudget;
 import com.example.employeeapi.entity.User;
 import com.example.employeeapi.security.JwtUtil;
 import com.example.employeeapi.service.UserService;
@@ -28,6 +29,7 @@ public class AuthController {
     }
 
     @PostMapping("/login")
+    @StatementBudget(2)
     public ResponseEntity<?> login(@RequestBody Map<String, String> request) {
         try {
             String username = request.get("username");
@@ -56,12 +58,14 @@ public class AuthController {
                 response.put("roles", user.getRoles());
                 response.put("message", "Authentication successful");
                 
-                logger.info("User {} authenticated successfully with roles: {}", username, user.getRoles());
+                logger.atInfo().addKeyValue("user", username)
+                        .addKeyValue("roles", () -> String.valueOf(user.getRoles()))
+                        .log("Authentication succeeded");
                 return new ResponseEntity<>(response, HttpStatus.OK);
             } else {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Invalid username or password");
-                logger.warn("Authentication failed for username: {}", username);
+                logger.atWarn().addKeyValue("user", username).log("Authentication failed");
                 return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
             }
         } catch (Exception e) {
@@ -0,0 +1,42 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.annotation.RequireRole;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.service.EmployeeChangeLog;
+import com.example.employeeapi.service.EmployeeChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/employees/changes")
+@CrossOrigin(origins = "*")
+public class EmployeeChangeController {
+
+    @Autowired
+    private EmployeeChangeStreamService changeStreamService;
+
+    @Value("${app.changes.long-poll-timeout-ms:25000}")
+    private long maxLongPollTimeoutMs;
+
+    // Stream changes as Server-Sent Events; reconnecting clients resume from Last-Event-ID
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    public SseEmitter streamChanges(@RequestParam(required = false) String since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeStreamService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    // Long-poll for changes after a cursor from an earlier response
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    public DeferredResult<EmployeeChangeLog.Batch> pollChanges(@RequestParam(required = false) String since,
+                                                               @RequestParam(defaultValue = "25000") long timeoutMs,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        long timeout = Math.min(timeoutMs, maxLongPollTimeoutMs);
+        return changeStreamService.poll(since, timeout, Math.max(1, limit));
+    }
+}
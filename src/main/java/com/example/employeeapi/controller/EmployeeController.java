@@ -1,19 +1,42 @@
 package com.example.employeeapi.controller;
 
 import com.example.employeeapi.annotation.RequireRole;
+import com.example.employeeapi.annotation.StatementBudget;
 import com.example.employeeapi.entity.Employee;
 import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.EmployeeProjectionRepository;
 import com.example.employeeapi.service.EmployeeService;
+import com.example.employeeapi.service.ExportService;
+import com.example.employeeapi.statements.StatementBudgetAspect;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/employees")
@@ -23,9 +46,42 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private HttpServletRequest request;
+
+    @Value("${app.batch-get.max-ids:200}")
+    private int batchGetMaxIds;
+
+    @Value("${app.batch-get.chunk-size:100}")
+    private int batchGetChunkSize;
+
+    @Value("${app.query.max-limit:500}")
+    private int queryMaxLimit;
+
+    @Value("${app.ranking.max-k:1000}")
+    private int rankingMaxK;
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "department", "salary");
+
+    // Formats a single employee can be written in, in converter order; each gets its own strong ETag
+    private static final Map<MediaType, String> ENTITY_FORMATS = new LinkedHashMap<>();
+
+    static {
+        ENTITY_FORMATS.put(MediaType.APPLICATION_JSON, "json");
+        ENTITY_FORMATS.put(new MediaType("application", "x-jackson-smile"), "smile");
+        ENTITY_FORMATS.put(MediaType.APPLICATION_CBOR, "cbor");
+    }
+
     // Create a new employee
     @PostMapping
     @RequireRole({Role.ADMIN, Role.HR})
+    @StatementBudget(5)
     public ResponseEntity<?> createEmployee(@Valid @RequestBody Employee employee) {
         try {
             Employee savedEmployee = employeeService.createEmployee(employee);
@@ -40,18 +96,60 @@ public class EmployeeController {
     // Get all employees
     @GetMapping
     @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
-    public ResponseEntity<List<Employee>> getAllEmployees() {
+    @StatementBudget(1)
+    public ResponseEntity<?> getAllEmployees(@RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> fieldset = parseFields(fields);
+        if (fieldset != null && fieldset.isEmpty()) {
+            return invalidFields();
+        }
+        // Take the tag before reading so a concurrent write can only make it look older
+        String etag = collectionETag();
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (fieldset != null) {
+            return withETag(etag).body(employeeService.getAllEmployeeFields(fieldset));
+        }
         List<Employee> employees = employeeService.getAllEmployees();
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+        return withETag(etag).body(employees);
     }
 
     // Get employee by ID
     @GetMapping("/{id}")
     @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER, Role.EMPLOYEE})
-    public ResponseEntity<?> getEmployeeById(@PathVariable Long id) {
+    @StatementBudget(2) // If-None-Match that misses the version cache: version lookup, then the entity
+    public ResponseEntity<?> getEmployeeById(@PathVariable Long id, @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> fieldset = parseFields(fields);
+        if (fieldset != null && fieldset.isEmpty()) {
+            return invalidFields();
+        }
+        if (fieldset != null) {
+            // The ETag comes from the version of the row that was read, never from a separate lookup
+            boolean versionRequested = fieldset.contains("version");
+            List<String> selected = versionRequested ? fieldset : withVersion(fieldset);
+            Optional<Map<String, Object>> row = employeeService.getEmployeeFieldsById(id, selected);
+            if (row.isPresent()) {
+                Map<String, Object> fieldValues = row.get();
+                String etag = versionETag((Long) (versionRequested
+                        ? fieldValues.get("version") : fieldValues.remove("version")));
+                return matches(ifNoneMatch, etag) ? notModified(etag) : withETag(etag).body(fieldValues);
+            }
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Employee not found with id: " + id);
+            return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+        }
+        if (ifNoneMatch != null) {
+            // Answer from the version cache without loading the entity
+            Optional<Long> version = employeeService.getEmployeeVersion(id);
+            if (version.isPresent() && matches(ifNoneMatch, versionETag(version.get()))) {
+                return notModified(versionETag(version.get()));
+            }
+        }
         Optional<Employee> employee = employeeService.getEmployeeById(id);
         if (employee.isPresent()) {
-            return new ResponseEntity<>(employee.get(), HttpStatus.OK);
+            return withETag(versionETag(employee.get().getVersion())).body(employee.get());
         } else {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Employee not found with id: " + id);
@@ -59,9 +157,48 @@ public class EmployeeController {
         }
     }
 
+    // Get several employees by ID in one request; results follow the request order
+    @PostMapping("/batch-get")
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER, Role.EMPLOYEE})
+    @StatementBudget(1)
+    public ResponseEntity<?> batchGetEmployees(@RequestBody Map<String, List<Long>> request) {
+        List<Long> ids = request.get("ids");
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "A non-empty list of ids is required");
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+        if (ids.size() > batchGetMaxIds) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "At most " + batchGetMaxIds + " ids can be requested at once");
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+
+        // One IN query per chunk of distinct ids
+        long distinct = ids.stream().distinct().count();
+        StatementBudgetAspect.allow((int) ((distinct + batchGetChunkSize - 1) / batchGetChunkSize) - 1);
+        Map<Long, Employee> employees = employeeService.getEmployeesByIds(ids);
+        List<Map<String, Object>> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Employee employee = employees.get(id);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("id", id);
+            result.put("found", employee != null);
+            if (employee != null) {
+                result.put("employee", employee);
+            }
+            results.add(result);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     // Get employee by email
     @GetMapping("/email/{email}")
     @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    @StatementBudget(1)
     public ResponseEntity<?> getEmployeeByEmail(@PathVariable String email) {
         Optional<Employee> employee = employeeService.getEmployeeByEmail(email);
         if (employee.isPresent()) {
@@ -76,26 +213,153 @@ public class EmployeeController {
     // Get employees by department
     @GetMapping("/department/{department}")
     @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
-    public ResponseEntity<List<Employee>> getEmployeesByDepartment(@PathVariable String department) {
+    @StatementBudget(1)
+    public ResponseEntity<?> getEmployeesByDepartment(@PathVariable String department,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> fieldset = parseFields(fields);
+        if (fieldset != null && fieldset.isEmpty()) {
+            return invalidFields();
+        }
+        String etag = collectionETag();
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (fieldset != null) {
+            return withETag(etag).body(employeeService.getEmployeeFieldsByDepartment(department, fieldset));
+        }
         List<Employee> employees = employeeService.getEmployeesByDepartment(department);
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+        return withETag(etag).body(employees);
     }
 
     // Search employees by name
     @GetMapping("/search")
     @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
-    public ResponseEntity<List<Employee>> searchEmployeesByName(@RequestParam String name) {
+    @StatementBudget(1)
+    public ResponseEntity<?> searchEmployeesByName(@RequestParam String name,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<String> fieldset = parseFields(fields);
+        if (fieldset != null && fieldset.isEmpty()) {
+            return invalidFields();
+        }
+        String etag = collectionETag();
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (fieldset != null) {
+            return withETag(etag).body(employeeService.searchEmployeeFieldsByName(name, fieldset));
+        }
         List<Employee> employees = employeeService.searchEmployeesByName(name);
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+        return withETag(etag).body(employees);
+    }
+
+    // Query employees by department, salary range and name prefix with sorting and a limit
+    @GetMapping("/query")
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    @StatementBudget(1)
+    public ResponseEntity<?> queryEmployees(@RequestParam(required = false) String department,
+                                            @RequestParam(required = false) BigDecimal minSalary,
+                                            @RequestParam(required = false) BigDecimal maxSalary,
+                                            @RequestParam(required = false) String namePrefix,
+                                            @RequestParam(defaultValue = "id") String sort,
+                                            @RequestParam(defaultValue = "50") int limit,
+                                            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Map<String, String> error = new HashMap<>();
+        Sort order = parseSort(sort);
+        List<String> fieldset = parseFields(fields);
+        if (fieldset != null && fieldset.isEmpty()) {
+            return invalidFields();
+        }
+        if (order == null) {
+            error.put("error", "Sort must be one of " + SORTABLE_FIELDS + ", optionally followed by ',asc' or ',desc'");
+        } else if (limit < 1 || limit > queryMaxLimit) {
+            error.put("error", "Limit must be between 1 and " + queryMaxLimit);
+        } else if (minSalary != null && maxSalary != null && minSalary.compareTo(maxSalary) > 0) {
+            error.put("error", "minSalary must not be greater than maxSalary");
+        }
+        if (!error.isEmpty()) {
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+
+        String etag = collectionETag();
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (fieldset != null) {
+            return withETag(etag).body(employeeService.queryEmployeeFields(
+                    department, minSalary, maxSalary, namePrefix, order, limit, fieldset));
+        }
+        List<Employee> employees = employeeService.queryEmployees(department, minSalary, maxSalary, namePrefix, order, limit);
+        return withETag(etag).body(employees);
+    }
+
+    // Top k earners (or bottom k with order=asc) of every department
+    @GetMapping("/ranking/top")
+    @RequireRole({Role.ADMIN, Role.HR})
+    @StatementBudget(1)
+    public ResponseEntity<?> getTopEmployeesPerDepartment(@RequestParam(defaultValue = "10") int k,
+                                                          @RequestParam(defaultValue = "desc") String order) {
+        Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(order);
+        Map<String, String> error = new HashMap<>();
+        if (direction.isEmpty()) {
+            error.put("error", "Order must be 'asc' or 'desc'");
+        } else if (k < 1 || k > rankingMaxK) {
+            error.put("error", "k must be between 1 and " + rankingMaxK);
+        }
+        if (!error.isEmpty()) {
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+        Map<String, List<Employee>> ranking = employeeService.getTopEmployeesBySalaryPerDepartment(k, direction.get());
+        return new ResponseEntity<>(ranking, HttpStatus.OK);
+    }
+
+    // Salary percentile of every department, e.g. percent=10&order=asc for the bottom decile
+    @GetMapping("/ranking/percentile")
+    @RequireRole({Role.ADMIN, Role.HR})
+    @StatementBudget(2) // Without window functions: department sizes, then the heap selection scan
+    public ResponseEntity<?> getSalaryPercentilePerDepartment(@RequestParam(defaultValue = "10") double percent,
+                                                              @RequestParam(defaultValue = "asc") String order) {
+        Optional<Sort.Direction> direction = Sort.Direction.fromOptionalString(order);
+        Map<String, String> error = new HashMap<>();
+        if (direction.isEmpty()) {
+            error.put("error", "Order must be 'asc' or 'desc'");
+        } else if (!(percent > 0 && percent <= 100)) {
+            error.put("error", "Percent must be greater than 0 and at most 100");
+        }
+        if (!error.isEmpty()) {
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+        Map<String, List<Employee>> ranking = employeeService.getSalaryPercentilePerDepartment(percent, direction.get());
+        return new ResponseEntity<>(ranking, HttpStatus.OK);
+    }
+
+    // Stream every employee (optionally one department) as CSV straight from a database cursor
+    @GetMapping(value = "/export", produces = "text/csv")
+    @RequireRole({Role.ADMIN, Role.HR})
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(required = false) String department) {
+        StreamingResponseBody body = out -> exportService.exportEmployees(department, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
     }
 
     // Update employee
     @PutMapping("/{id}")
     @RequireRole({Role.ADMIN, Role.HR})
-    public ResponseEntity<?> updateEmployee(@PathVariable Long id, @Valid @RequestBody Employee employeeDetails) {
+    @StatementBudget(6) // An email change also checks the new email is free
+    public ResponseEntity<?> updateEmployee(@PathVariable Long id, @Valid @RequestBody Employee employeeDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Employee updatedEmployee = employeeService.updateEmployee(id, employeeDetails);
-            return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+            Long expectedVersion = expectedVersion(ifMatch);
+            Employee updatedEmployee = employeeService.updateEmployee(id, employeeDetails, expectedVersion);
+            return withETag(versionETag(updatedEmployee.getVersion())).body(updatedEmployee);
+        } catch (OptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Employee with id " + id + " was modified by another request");
+            return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -110,6 +374,7 @@ public class EmployeeController {
     // Delete employee
     @DeleteMapping("/{id}")
     @RequireRole(Role.ADMIN) // Only admin can delete employees
+    @StatementBudget(5)
     public ResponseEntity<?> deleteEmployee(@PathVariable Long id) {
         boolean deleted = employeeService.deleteEmployee(id);
         if (deleted) {
@@ -126,6 +391,7 @@ public class EmployeeController {
     // Get employee count
     @GetMapping("/count")
     @RequireRole({Role.ADMIN, Role.HR})
+    @StatementBudget(1)
     public ResponseEntity<Map<String, Long>> getEmployeeCount() {
         long count = employeeService.getTotalEmployeeCount();
         Map<String, Long> response = new HashMap<>();
@@ -136,10 +402,134 @@ public class EmployeeController {
     // Health check endpoint
     @GetMapping("/health")
     @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER, Role.EMPLOYEE}) // All authenticated users can check health
+    @StatementBudget(0)
     public ResponseEntity<Map<String, String>> healthCheck() {
         Map<String, String> response = new HashMap<>();
         response.put("status", "UP");
         response.put("service", "Employee API");
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    // Parse a comma-separated fieldset; null when absent, empty when it names an unknown field
+    private List<String> parseFields(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        List<String> fieldset = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!EmployeeProjectionRepository.PROJECTABLE_FIELDS.contains(name)) {
+                return List.of();
+            }
+            if (!fieldset.contains(name)) {
+                fieldset.add(name);
+            }
+        }
+        return fieldset;
+    }
+
+    private ResponseEntity<?> invalidFields() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Fields must be a comma-separated subset of " + EmployeeProjectionRepository.PROJECTABLE_FIELDS);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Parse "field" or "field,asc|desc"; returns null for anything else
+    private Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        if (parts.length > 2 || !SORTABLE_FIELDS.contains(parts[0])) {
+            return null;
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            Optional<Sort.Direction> parsed = Sort.Direction.fromOptionalString(parts[1]);
+            if (parsed.isEmpty()) {
+                return null;
+            }
+            direction = parsed.get();
+        }
+        Sort order = Sort.by(direction, parts[0]);
+        // Tie-break on id so equal values come back in a stable order
+        return "id".equals(parts[0]) ? order : order.and(Sort.by("id"));
+    }
+
+    private static List<String> withVersion(List<String> fields) {
+        List<String> selected = new ArrayList<>(fields);
+        selected.add("version");
+        return selected;
+    }
+
+    // Strong tags promise byte-identical bodies, so the negotiated format is part of the tag: "3-json", "3-cbor"
+    private String versionETag(Long version) {
+        return "\"" + version + "-" + entityFormat() + "\"";
+    }
+
+    // The format the converters will pick for a single employee, following Accept in quality order
+    private String entityFormat() {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return "json";
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> format : ENTITY_FORMATS.entrySet()) {
+                if (type.includes(format.getKey())) {
+                    return format.getValue();
+                }
+            }
+        }
+        return "json";
+    }
+
+    // Weak: lists are only semantically equivalent across encodings, and Tomcat will not compress strong-tagged responses
+    private String collectionETag() {
+        return "W/\"" + employeeService.getEmployeeCollectionTag() + "\"";
+    }
+
+    // If-None-Match uses weak comparison, so strong and weak forms of the same tag match
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = ETag.parse(etag).get(0).tag();
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(tag -> tag.isWildcard() || tag.tag().equals(current));
+    }
+
+    // If-Match carries the version the client last saw; "*" only requires the employee to exist
+    private Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.isEmpty() || tags.get(0).isWildcard()) {
+            return null;
+        }
+        ETag tag = tags.get(0);
+        if (tag.weak()) {
+            // Weak tags never satisfy If-Match
+            throw new ObjectOptimisticLockingFailureException(Employee.class, tag.tag());
+        }
+        try {
+            // Any representation of a version identifies that version
+            return Long.valueOf(tag.tag().split("-", 2)[0]);
+        } catch (NumberFormatException e) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, tag.tag());
+        }
+    }
+
+    private ResponseEntity.BodyBuilder withETag(String etag) {
+        // no-cache lets clients keep the response but forces them to revalidate it; the tag depends on Accept
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT).build();
+    }
 }
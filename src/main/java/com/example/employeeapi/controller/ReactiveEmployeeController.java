@@ -0,0 +1,77 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.annotation.RequireRole;
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.ReactiveEmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Read-only employee endpoints that do not hold a request thread while the database works.
+ * With Accept: application/x-ndjson or text/event-stream, lists are streamed and each row is
+ * requested from the database only after the previous one was written to the client; plain JSON
+ * collects the list first. Writes stay on /api/employees, which owns the write-side invariants.
+ */
+@RestController
+@RequestMapping("/api/reactive/employees")
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeController {
+
+    @Autowired
+    private ReactiveEmployeeRepository reactiveEmployeeRepository;
+
+    // Get all employees as one JSON array
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    public Flux<Employee> getAllEmployees() {
+        return reactiveEmployeeRepository.findAll();
+    }
+
+    // Stream all employees, one row per line or event
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    public Flux<Employee> streamAllEmployees() {
+        return reactiveEmployeeRepository.findAll();
+    }
+
+    // Get employee by ID
+    @GetMapping("/{id}")
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER, Role.EMPLOYEE})
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable Long id) {
+        return reactiveEmployeeRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Get employees by department
+    @GetMapping(value = "/department/{department}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    public Flux<Employee> getEmployeesByDepartment(@PathVariable String department) {
+        return reactiveEmployeeRepository.findByDepartment(department);
+    }
+
+    @GetMapping(value = "/department/{department}",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @RequireRole({Role.ADMIN, Role.HR, Role.MANAGER})
+    public Flux<Employee> streamEmployeesByDepartment(@PathVariable String department) {
+        return reactiveEmployeeRepository.findByDepartment(department);
+    }
+
+    // Get employee count
+    @GetMapping("/count")
+    @RequireRole({Role.ADMIN, Role.HR})
+    public Mono<Map<String, Long>> getEmployeeCount() {
+        return reactiveEmployeeRepository.count().map(count -> Map.of("count", count));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.annotation.RequireRole;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.service.UserService;
+import com.example.employeeapi.service.UserSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*")
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${app.users.autocomplete.max-limit:50}")
+    private int autocompleteMaxLimit;
+
+    // Users whose username or any word of their full name starts with q; answered from memory
+    @GetMapping("/autocomplete")
+    @RequireRole({Role.ADMIN})
+    public ResponseEntity<?> autocompleteUsers(@RequestParam String q,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        Map<String, String> error = new HashMap<>();
+        if (q.isBlank()) {
+            error.put("error", "Query must not be blank");
+        } else if (limit < 1 || limit > autocompleteMaxLimit) {
+            error.put("error", "Limit must be between 1 and " + autocompleteMaxLimit);
+        }
+        if (!error.isEmpty()) {
+            return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        }
+        List<UserSnapshot> users = userService.autocompleteUsers(q, limit);
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.employeeapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-day roll-up of audit log entries for one entity type, user and action.
+ * Written by the retention job before the detail rows are deleted.
+ */
+@Entity
+@Table(name = "audit_daily_summary", uniqueConstraints = {
+        // One row per key: the retention job upserts into it, from any node
+        @UniqueConstraint(name = "uk_audit_daily_summary_key", columnNames = {"summary_date", "entity_name", "username", "action"})
+})
+@Getter
+@Setter
+public class AuditDailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    // Not null so the unique key covers every row; missing values are stored as "unknown"
+    @Column(name = "entity_name", nullable = false)
+    private String entityName;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String action;
+
+    @Column(nullable = false)
+    private long entryCount;
+
+    private LocalDateTime firstTimestamp;
+    private LocalDateTime lastTimestamp;
+
+    public AuditDailySummary() {}
+
+    public AuditDailySummary(LocalDate summaryDate, String entityName, String username, String action) {
+        this.summaryDate = summaryDate;
+        this.entityName = entityName;
+        this.username = username;
+        this.action = action;
+    }
+
+}
@@ -7,7 +7,13 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_log")
+@Table(name = "audit_log", indexes = {
+        // Trailing id lets keyset pages (newest first) be read straight off each index
+        @Index(name = "idx_audit_log_entity", columnList = "entityName, entityId, id"),
+        @Index(name = "idx_audit_log_username", columnList = "username, id"),
+        @Index(name = "idx_audit_log_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_audit_log_month", columnList = "month_bucket, id")
+})
 @Getter
 @Setter
 public class AuditLog {
@@ -22,6 +28,10 @@ public class AuditLog {
     private String username;
     private LocalDateTime timestamp;
 
+    // Partition key (yyyyMM); time-range queries prune on it and retention can drop whole months
+    @Column(name = "month_bucket", nullable = false)
+    private Integer monthBucket;
+
     public AuditLog() {}
 
     public AuditLog(String action, String entityName, Long entityId, String username) {
@@ -32,4 +42,16 @@ public class AuditLog {
         this.timestamp = LocalDateTime.now();
     }
 
+    public static int monthBucketOf(LocalDateTime timestamp) {
+        return timestamp.getYear() * 100 + timestamp.getMonthValue();
+    }
+
+    @PrePersist
+    protected void assignMonthBucket() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+        monthBucket = monthBucketOf(timestamp);
+    }
+
 }
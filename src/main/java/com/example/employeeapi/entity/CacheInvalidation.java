@@ -0,0 +1,47 @@
+package com.example.employeeapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One invalidation message on the database transport; rows are polled by every node and purged
+ * after a short retention window
+ */
+@Entity
+@Table(name = "cache_invalidation", indexes = {
+        @Index(name = "idx_cache_invalidation_published", columnList = "published_at")
+})
+@Getter
+@Setter
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    private Long version;
+
+    // Epoch millis, used for lag measurement and retention
+    @Column(name = "published_at", nullable = false)
+    private long publishedAt;
+
+    public CacheInvalidation() {}
+
+    public CacheInvalidation(String origin, String entityType, Long entityId, Long version, long publishedAt) {
+        this.origin = origin;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.version = version;
+        this.publishedAt = publishedAt;
+    }
+}
@@ -7,11 +7,22 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
+import java.util.Locale;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        // Leading department column also serves department-only lookups
+        @Index(name = "idx_employees_department_salary", columnList = "department, salary"),
+        @Index(name = "idx_employees_salary", columnList = "salary"),
+        @Index(name = "idx_employees_name_lower", columnList = "name_lower")
+}, uniqueConstraints = {
+        // Named so a duplicate email can be told apart from other integrity violations
+        @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class Employee {
 
+    public static final String EMAIL_CONSTRAINT = "uk_employees_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,7 +33,7 @@ public class Employee {
 
     @Email(message = "Email should be valid")
     @NotBlank(message = "Email is required")
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
 
     @NotBlank(message = "Department is required")
@@ -34,6 +45,14 @@ public class Employee {
     @Column(name = "salary", nullable = false, precision = 10, scale = 2)
     private BigDecimal salary;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Lower-cased copy of name so case-insensitive prefix searches can use an index
+    @Column(name = "name_lower", nullable = false)
+    private String nameLower;
+
     // Default constructor
     public Employee() {
     }
@@ -46,6 +65,21 @@ public class Employee {
         this.salary = salary;
     }
 
+    // Detached copy with the same state, so callers that share a read can each change their own
+    public Employee copy() {
+        Employee copy = new Employee(name, email, department, salary);
+        copy.id = id;
+        copy.version = version;
+        copy.nameLower = nameLower;
+        return copy;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeName() {
+        nameLower = name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -87,6 +121,14 @@ public class Employee {
         this.salary = salary;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Employee{" +
@@ -95,6 +137,7 @@ public class Employee {
                 ", email='" + email + '\'' +
                 ", department='" + department + '\'' +
                 ", salary=" + salary +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,35 @@
+package com.example.employeeapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Database lease for a scheduled job, so only one node runs it at a time.
+ * A node holds the lock while locked_until lies in the future and renews it as it makes progress;
+ * a node that dies simply lets the lease run out.
+ */
+@Entity
+@Table(name = "job_lock")
+@Getter
+@Setter
+public class JobLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    // Epoch millis
+    @Column(name = "locked_until", nullable = false)
+    private long lockedUntil;
+
+    public JobLock() {}
+
+    public JobLock(String name) {
+        this.name = name;
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.example.employeeapi.enums;
+
+/**
+ * Enum representing the kind of change recorded for an entity
+ */
+public enum ChangeType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,118 @@
+package com.example.employeeapi.invalidation;
+
+import com.example.employeeapi.entity.CacheInvalidation;
+import com.example.employeeapi.repository.CacheInvalidationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Shares invalidations through the {@code cache_invalidation} table: every node inserts its
+ * messages and polls for rows past the last id it has seen.
+ * Identity values are assigned before commit, so a row with a lower id can become visible after
+ * a higher one was read; skipped ids are remembered and re-checked until {@code gap-timeout-ms}
+ * (after which they are assumed to be rolled back).
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "database")
+public class DatabaseInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseInvalidationTransport.class);
+
+    // Larger jumps come from purges or restarts rather than in-flight transactions
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    @Autowired
+    private CacheInvalidationRepository repository;
+
+    @Value("${app.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${app.invalidation.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private volatile Consumer<List<InvalidationMessage>> receiver;
+    private long lastSeenId;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void start(Consumer<List<InvalidationMessage>> receiver) {
+        // Only changes from now on matter; older ones predate everything this node has cached
+        lastSeenId = repository.findTopByOrderByIdDesc().map(CacheInvalidation::getId).orElse(0L);
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void send(List<InvalidationMessage> messages) {
+        List<CacheInvalidation> rows = new ArrayList<>(messages.size());
+        for (InvalidationMessage message : messages) {
+            rows.add(new CacheInvalidation(message.getOrigin(), message.getEntityType(), message.getEntityId(),
+                    message.getVersion(), message.getPublishedAt()));
+        }
+        repository.saveAll(rows);
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidation.poll-interval-ms:500}")
+    public synchronized void poll() {
+        Consumer<List<InvalidationMessage>> target = receiver;
+        if (target == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<CacheInvalidation> rows = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            for (CacheInvalidation late : repository.findByIdIn(new ArrayList<>(gaps.keySet()))) {
+                gaps.remove(late.getId());
+                rows.add(late);
+            }
+            Iterator<Long> noticed = gaps.values().iterator();
+            while (noticed.hasNext()) {
+                if (now - noticed.next() > gapTimeoutMs) {
+                    noticed.remove();
+                }
+            }
+        }
+
+        for (CacheInvalidation row : repository.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(batchSize))) {
+            if (row.getId() - lastSeenId <= MAX_TRACKED_GAP) {
+                for (long missing = lastSeenId + 1; missing < row.getId(); missing++) {
+                    gaps.putIfAbsent(missing, now);
+                }
+            }
+            lastSeenId = row.getId();
+            rows.add(row);
+        }
+
+        if (!rows.isEmpty()) {
+            List<InvalidationMessage> messages = new ArrayList<>(rows.size());
+            for (CacheInvalidation row : rows) {
+                messages.add(new InvalidationMessage(row.getOrigin(), row.getEntityType(), row.getEntityId(),
+                        row.getVersion(), row.getPublishedAt()));
+            }
+            target.accept(messages);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidation.purge-interval-ms:60000}")
+    public void purge() {
+        int purged = repository.deleteByPublishedAtBefore(System.currentTimeMillis() - retentionMinutes * 60_000);
+        if (purged > 0) {
+            logger.debug("Purged {} old invalidation rows", purged);
+        }
+    }
+}
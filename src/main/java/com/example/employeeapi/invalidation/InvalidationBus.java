@@ -0,0 +1,155 @@
+package com.example.employeeapi.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tells other nodes about committed writes so they can drop their in-memory copies.
+ * Writes are queued per entity and flushed every {@code coalesce-ms}, so a burst of updates to
+ * one row costs one message. Incoming messages from other nodes are dispatched to the handlers
+ * subscribed for their entity type; the node's own messages are ignored since it already applied
+ * the write locally.
+ */
+@Component
+public class InvalidationBus {
+
+    public static final String EMPLOYEE = "Employee";
+    public static final String USER = "User";
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final InvalidationTransport transport;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    private final Map<String, List<Consumer<InvalidationMessage>>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, InvalidationMessage> pending = new ConcurrentHashMap<>();
+
+    private Counter coalesced;
+    private Counter sent;
+    private Counter sendFailures;
+    private Timer lag;
+
+    public InvalidationBus(InvalidationTransport transport, MeterRegistry meterRegistry,
+                           @Value("${app.invalidation.node-id:}") String nodeId) {
+        this.transport = transport;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    @PostConstruct
+    void start() {
+        coalesced = Counter.builder("invalidation.coalesced")
+                .description("Invalidations merged into a message already waiting to be sent")
+                .register(meterRegistry);
+        sent = Counter.builder("invalidation.sent")
+                .description("Invalidation messages handed to the transport")
+                .register(meterRegistry);
+        sendFailures = Counter.builder("invalidation.send.failures")
+                .description("Flushes that failed and were queued again")
+                .register(meterRegistry);
+        lag = Timer.builder("invalidation.lag")
+                .description("Time from publishing on one node to handling on another")
+                .register(meterRegistry);
+        Gauge.builder("invalidation.pending", pending, Map::size).register(meterRegistry);
+
+        transport.start(this::deliver);
+        logger.info("Invalidation bus started on node {} with {}", nodeId, transport.getClass().getSimpleName());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Handle invalidations of the entity type made on other nodes; handlers must be idempotent
+     */
+    public void subscribe(String entityType, Consumer<InvalidationMessage> handler) {
+        handlers.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Queue an invalidation for a committed write; version is null for deletes and unversioned entities
+     */
+    public void publish(String entityType, Long entityId, Long version) {
+        Counter.builder("invalidation.published").tag("type", entityType).register(meterRegistry).increment();
+        InvalidationMessage message = new InvalidationMessage(nodeId, entityType, entityId, version, 0);
+        pending.merge(entityType + ":" + entityId, message, (queued, next) -> {
+            coalesced.increment();
+            return newer(queued, next);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidation.coalesce-ms:50}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<InvalidationMessage> batch = new ArrayList<>(pending.size());
+        for (String key : pending.keySet()) {
+            InvalidationMessage queued = pending.remove(key);
+            if (queued != null) {
+                batch.add(new InvalidationMessage(nodeId, queued.getEntityType(), queued.getEntityId(),
+                        queued.getVersion(), now));
+            }
+        }
+        try {
+            transport.send(batch);
+            sent.increment(batch.size());
+        } catch (RuntimeException e) {
+            sendFailures.increment();
+            logger.warn("Sending {} invalidations failed, retrying on the next flush: {}", batch.size(), e.getMessage());
+            for (InvalidationMessage message : batch) {
+                pending.merge(message.getEntityType() + ":" + message.getEntityId(), message, InvalidationBus::newer);
+            }
+        }
+    }
+
+    private void deliver(List<InvalidationMessage> messages) {
+        long now = System.currentTimeMillis();
+        for (InvalidationMessage message : messages) {
+            if (nodeId.equals(message.getOrigin())) {
+                continue;
+            }
+            lag.record(Math.max(0, now - message.getPublishedAt()), TimeUnit.MILLISECONDS);
+            Counter.builder("invalidation.received").tag("type", message.getEntityType())
+                    .register(meterRegistry).increment();
+            for (Consumer<InvalidationMessage> handler : handlers.getOrDefault(message.getEntityType(), List.of())) {
+                try {
+                    handler.accept(message);
+                } catch (RuntimeException e) {
+                    logger.error("Invalidation handler for {} {} failed", message.getEntityType(), message.getEntityId(), e);
+                }
+            }
+        }
+    }
+
+    // A delete supersedes any update; otherwise the higher version wins
+    private static InvalidationMessage newer(InvalidationMessage a, InvalidationMessage b) {
+        if (a.getVersion() == null) {
+            return a;
+        }
+        if (b.getVersion() == null) {
+            return b;
+        }
+        return b.getVersion() >= a.getVersion() ? b : a;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.employeeapi.invalidation;
+
+/**
+ * A committed write to one entity: enough for another node to drop or refresh its copy
+ */
+public final class InvalidationMessage {
+
+    private final String origin;
+    private final String entityType;
+    private final Long entityId;
+    private final Long version;
+    private final long publishedAt;
+
+    public InvalidationMessage(String origin, String entityType, Long entityId, Long version, long publishedAt) {
+        this.origin = origin;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.version = version;
+        this.publishedAt = publishedAt;
+    }
+
+    /**
+     * Node that made the write
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Version after the write; null for deletes and for entities without a version column
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Epoch millis when the message was handed to the transport
+     */
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.employeeapi.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation messages between nodes. Delivery is at least once and may include the
+ * sender's own messages; the bus filters those and handlers must be idempotent.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Start delivering messages from all nodes to the receiver
+     */
+    void start(Consumer<List<InvalidationMessage>> receiver);
+
+    void send(List<InvalidationMessage> messages);
+}
@@ -0,0 +1,31 @@
+package com.example.employeeapi.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages synchronously to every bus started on this transport in the same JVM.
+ * The default for single-node runs; several buses sharing one instance simulate a cluster.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<List<InvalidationMessage>>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void start(Consumer<List<InvalidationMessage>> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void send(List<InvalidationMessage> messages) {
+        for (Consumer<List<InvalidationMessage>> receiver : receivers) {
+            receiver.accept(messages);
+        }
+    }
+}
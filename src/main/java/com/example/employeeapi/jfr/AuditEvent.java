@@ -0,0 +1,31 @@
+package com.example.employeeapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Writing an audit entry after a create, update or delete
+ */
+@Name("com.example.employeeapi.Audit")
+@Label("Audit")
+@Category({"Employee API", "Service"})
+@StackTrace(false)
+@Setter
+public class AuditEvent extends Event {
+
+    @Label("Action")
+    String action;
+
+    @Label("Entity")
+    String entity;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("User")
+    String user;
+}
@@ -0,0 +1,31 @@
+package com.example.employeeapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * The @RequireRole check in SecurityAspect, including token parsing
+ */
+@Name("com.example.employeeapi.Authorization")
+@Label("Authorization")
+@Category({"Employee API", "Security"})
+@StackTrace(false)
+@Setter
+public class AuthorizationEvent extends Event {
+
+    @Label("User")
+    String user;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Granted")
+    boolean granted;
+}
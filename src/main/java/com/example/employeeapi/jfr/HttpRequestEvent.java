@@ -0,0 +1,35 @@
+package com.example.employeeapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * One REST request, from the filter chain to the response status
+ * The phase events below nest inside it on the same thread.
+ */
+@Name("com.example.employeeapi.HttpRequest")
+@Label("HTTP Request")
+@Category({"Employee API", "HTTP"})
+@StackTrace(false)
+@Setter
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Matched route pattern, or the request URI when no handler matched")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("User")
+    @Description("Authenticated user, or null for anonymous requests")
+    String user;
+}
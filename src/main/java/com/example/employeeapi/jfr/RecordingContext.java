@@ -0,0 +1,51 @@
+package com.example.employeeapi.jfr;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Who and which endpoint the current thread is working for, so phase events can be grouped by
+ * user and endpoint. Both are null outside a request, for example in scheduled jobs.
+ */
+public final class RecordingContext {
+
+    private RecordingContext() {
+    }
+
+    /**
+     * Authenticated user of the current thread, or null when anonymous
+     */
+    public static String currentUser() {
+        return nameOf(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    /**
+     * Route pattern of the request the current thread serves, or null outside a request
+     */
+    public static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet
+                ? HttpRequestRecordingFilter.endpointOf(servlet.getRequest()) : null;
+    }
+
+    /**
+     * Authenticated user of a finished request; the security filters have cleared the thread's
+     * context by then, but bearer-token authentication leaves it on the request
+     */
+    static String userOf(HttpServletRequest request) {
+        Object context = request.getAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME);
+        return context instanceof SecurityContext security ? nameOf(security.getAuthentication()) : null;
+    }
+
+    private static String nameOf(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+    }
+}
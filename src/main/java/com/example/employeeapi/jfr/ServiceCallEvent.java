@@ -0,0 +1,47 @@
+package com.example.employeeapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * A public EmployeeService or UserService call, including its transaction
+ * There is no separate database event: the queries and commit run inside the call, and the
+ * statements field counts what it sent to the database.
+ */
+@Name("com.example.employeeapi.ServiceCall")
+@Label("Service Call")
+@Category({"Employee API", "Service"})
+@StackTrace(false)
+@Setter
+public class ServiceCallEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User")
+    @Description("Authenticated user of the request, or null outside a request")
+    String user;
+
+    @Label("Endpoint")
+    @Description("Route pattern of the request, or null outside a request")
+    String endpoint;
+
+    @Label("Statements")
+    @Description("SQL statements Hibernate prepared during the call on this thread; 0 when app.statement-budget is disabled")
+    int statements;
+
+    @Label("Rows")
+    @Description("Entities returned, or -1 when the result is not a set of rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
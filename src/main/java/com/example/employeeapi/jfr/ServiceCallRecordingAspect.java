@@ -0,0 +1,74 @@
+package com.example.employeeapi.jfr;
+
+import com.example.employeeapi.statements.StatementCounter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Emits a ServiceCallEvent around each public EmployeeService and UserService method
+ * Registered ahead of the transaction advice so the event includes the commit.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceCallRecordingAspect {
+
+    @Around("execution(public * com.example.employeeapi.service.EmployeeService.*(..))"
+            + " || execution(public * com.example.employeeapi.service.UserService.*(..))")
+    public Object recordServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        // Nested in the request's scope, so the request's statement count is unaffected
+        StatementCounter.Scope statements = StatementCounter.open();
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            statements.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.setService(joinPoint.getSignature().getDeclaringType().getSimpleName());
+                event.setOperation(joinPoint.getSignature().getName());
+                event.setUser(RecordingContext.currentUser());
+                event.setEndpoint(RecordingContext.currentEndpoint());
+                event.setStatements(statements.getCount());
+                event.setRows(failed ? -1 : rowsOf(result));
+                event.setFailed(failed);
+                event.commit();
+            }
+        }
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Map<?, ?> grouped) {
+            // Per-department results: count the rows inside the groups
+            long rows = 0;
+            for (Object value : grouped.values()) {
+                rows += value instanceof Collection<?> group ? group.size() : 1;
+            }
+            return rows;
+        }
+        if (result instanceof Optional<?> row) {
+            return row.isPresent() ? 1 : 0;
+        }
+        if (result == null || result instanceof Boolean || result instanceof Number || result instanceof String) {
+            return -1;
+        }
+        return 1;
+    }
+}
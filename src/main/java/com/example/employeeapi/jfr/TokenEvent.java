@@ -0,0 +1,35 @@
+package com.example.employeeapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Signing a JWT, or parsing one and verifying its signature
+ */
+@Name("com.example.employeeapi.Token")
+@Label("JWT")
+@Category({"Employee API", "Security"})
+@StackTrace(false)
+@Setter
+public class TokenEvent extends Event {
+
+    @Label("Operation")
+    @Description("sign or parse")
+    String operation;
+
+    @Label("Valid")
+    boolean valid;
+
+    @Label("User")
+    @Description("Subject of the token; null when it could not be parsed")
+    String user;
+
+    @Label("Endpoint")
+    @Description("Route pattern of the request, or null outside a request")
+    String endpoint;
+}
@@ -0,0 +1,161 @@
+package com.example.employeeapi.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive concurrency limiter driven by observed request latency.
+ *
+ * The limit follows a gradient between a long-term latency baseline and the latest sample:
+ * while latency stays close to the baseline the limit grows by a small queue allowance,
+ * and as latency climbs the limit shrinks proportionally. Requests above the limit are
+ * rejected immediately instead of queueing.
+ *
+ * Samples are averaged over rounds of roughly one limit's worth of completions, so the limit
+ * moves once per round trip rather than once per request, which would overshoot at high rates.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int baselineWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private static final int MIN_ROUND_SAMPLES = 10;
+
+    private volatile double estimatedLimit;
+    private double baselineRttNanos = -1;
+
+    private long roundRttNanos;
+    private int roundSamples;
+    private int roundMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing, int baselineWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.baselineWindow = baselineWindow;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Try to take a slot; returns false without waiting when the current limit is reached
+     */
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot and feed the observed latency into the limit estimate
+     */
+    public void release(long rttNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtRelease);
+    }
+
+    /**
+     * Release a slot without sampling, e.g. for requests that continue asynchronously
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long sampleRttNanos, int sampleInFlight) {
+        if (sampleRttNanos <= 0) {
+            return;
+        }
+        roundRttNanos += sampleRttNanos;
+        roundSamples++;
+        roundMaxInFlight = Math.max(roundMaxInFlight, sampleInFlight);
+        if (roundSamples < Math.max(MIN_ROUND_SAMPLES, (int) estimatedLimit)) {
+            return;
+        }
+        int samples = roundSamples;
+        long rttNanos = roundRttNanos / samples;
+        int inFlightAtRelease = roundMaxInFlight;
+        roundRttNanos = 0;
+        roundSamples = 0;
+        roundMaxInFlight = 0;
+
+        double limit = estimatedLimit;
+        if (baselineRttNanos < 0) {
+            baselineRttNanos = rttNanos;
+        } else if (rttNanos < baselineRttNanos || inFlightAtRelease < limit / 2) {
+            // Only unsaturated samples may raise the baseline; otherwise sustained overload would
+            // become the new normal and the limit would keep growing
+            // baselineWindow counts samples, so a round moves the baseline by its share of them
+            baselineRttNanos += (rttNanos - baselineRttNanos) * Math.min(1.0, (double) samples / baselineWindow);
+            // Let the baseline recover quickly once a latency spike is over
+            if (baselineRttNanos > 2 * rttNanos) {
+                baselineRttNanos = 2 * rttNanos;
+            }
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRttNanos / rttNanos));
+        double queueAllowance = Math.sqrt(limit);
+        double target = limit * gradient + queueAllowance;
+        // Do not grow the limit while the server is not using it
+        if (inFlightAtRelease < limit / 2) {
+            target = Math.min(target, limit);
+        }
+        double newLimit = limit * (1 - smoothing) + target * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getUtilization() {
+        return (double) inFlight.get() / getLimit();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{" +
+                "name='" + name + '\'' +
+                ", limit=" + getLimit() +
+                ", inFlight=" + getInFlight() +
+                ", rejected=" + getRejectedCount() +
+                '}';
+    }
+}
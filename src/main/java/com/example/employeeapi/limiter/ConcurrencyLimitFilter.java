@@ -0,0 +1,84 @@
+package com.example.employeeapi.limiter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that sheds load in front of the REST controllers
+ * Reads and writes are admitted against separate adaptive limits; writes are also
+ * held back while reads are close to their limit so reads keep priority under overload.
+ * Rejected requests get an immediate 503 instead of waiting in the container queue.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final String OVERLOAD_BODY = "{\"error\":\"Server is overloaded, please retry later\"}";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final double readPriorityThreshold;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter,
+                                  AdaptiveConcurrencyLimiter writeLimiter,
+                                  double readPriorityThreshold) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.readPriorityThreshold = readPriorityThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+        if (!read && readLimiter.getUtilization() >= readPriorityThreshold) {
+            reject(response, limiter, request);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(response, limiter, request);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sampled = false;
+        try {
+            filterChain.doFilter(request, response);
+            sampled = !request.isAsyncStarted();
+        } finally {
+            if (sampled) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter,
+                        HttpServletRequest request) throws IOException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Shedding {} {} ({})", request.getMethod(), request.getRequestURI(), limiter);
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(OVERLOAD_BODY);
+    }
+}
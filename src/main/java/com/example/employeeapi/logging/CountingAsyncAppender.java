@@ -0,0 +1,43 @@
+package com.example.employeeapi.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender that counts what it throws away: INFO and lower events discarded once the queue
+ * passes the discarding threshold, and events lost because the queue was full with neverBlock
+ * set. The second count is sampled just before the offer, so under a burst it is approximate.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Only consulted once the queue is past the discarding threshold
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0 && !super.isDiscardable(event)) {
+            dropped.increment();
+        }
+        super.append(event);
+    }
+
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
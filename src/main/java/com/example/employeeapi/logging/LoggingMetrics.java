@@ -0,0 +1,56 @@
+package com.example.employeeapi.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.filter.Filter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Publishes what the logging pipeline holds back: logging.events.dropped per async appender and
+ * reason, logging.events.sampled per sampling filter on it, and logging.queue.size
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof CountingAsyncAppender async) {
+                FunctionCounter.builder("logging.events.dropped", async, CountingAsyncAppender::getDiscarded)
+                        .tag("appender", async.getName())
+                        .tag("reason", "discarded")
+                        .description("Log events thrown away by the async appender")
+                        .register(registry);
+                FunctionCounter.builder("logging.events.dropped", async, CountingAsyncAppender::getDropped)
+                        .tag("appender", async.getName())
+                        .tag("reason", "queue-full")
+                        .description("Log events thrown away by the async appender")
+                        .register(registry);
+                Gauge.builder("logging.queue.size", async, CountingAsyncAppender::getNumberOfElementsInQueue)
+                        .tag("appender", async.getName())
+                        .register(registry);
+                for (Filter<ILoggingEvent> filter : async.getCopyOfAttachedFiltersList()) {
+                    if (filter instanceof SamplingFilter sampling) {
+                        FunctionCounter.builder("logging.events.sampled", sampling, SamplingFilter::getSampledOut)
+                                .tag("logger", sampling.getLogger())
+                                .description("Log events skipped by sampling")
+                                .register(registry);
+                    }
+                }
+            }
+        }
+    }
+}
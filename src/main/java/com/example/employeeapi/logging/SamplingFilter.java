@@ -0,0 +1,122 @@
+package com.example.employeeapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples high-frequency messages of loggers under {@code logger} at {@code level} or below: each
+ * message template may log {@code burst} events per second, beyond that only one in {@code every}
+ * passes and the rest are denied before they are formatted or queued. Messages logged less often
+ * than the burst are never touched, nor are events above the level or carrying an exception.
+ * The level is at most INFO: WARN and ERROR carry security and failure signals and always pass.
+ * Attached to the async appender in logback-spring.xml; an appender filter rather than a turbo
+ * filter because SLF4J fluent-API events never reach turbo filters with their message.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    // Templates beyond this share one counter; keeps the map bounded if a logger formats its own messages
+    private static final int MAX_TEMPLATES = 1024;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final Window overflow = new Window();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private String logger;
+    private Level level = Level.INFO;
+    private int burst = 20;
+    private int every = 100;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        String template = event.getMessage();
+        if (template == null || event.getThrowableProxy() != null || !isStarted()
+                || event.getLevel().toInt() > level.toInt()
+                || !event.getLoggerName().startsWith(logger)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.get(template);
+        if (window == null) {
+            window = windows.size() < MAX_TEMPLATES ? windows.computeIfAbsent(template, key -> new Window()) : overflow;
+        }
+        long seen = window.next(System.currentTimeMillis() / 1000);
+        if (seen <= burst || (seen - burst) % every == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (logger == null || logger.isEmpty()) {
+            addError("No logger set for sampling filter " + getName());
+            return;
+        }
+        if (level.isGreaterOrEqual(Level.WARN)) {
+            addError("Sampling filter " + getName() + " may only sample DEBUG and INFO, not " + level);
+            return;
+        }
+        if (burst < 0 || every < 1) {
+            addError("burst must not be negative and every must be at least 1 for sampling filter " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    public String getLogger() {
+        return logger;
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getEvery() {
+        return every;
+    }
+
+    public void setEvery(int every) {
+        this.every = every;
+    }
+
+    // Events seen for one template in the current second; a racy reset only lets a few extra through
+    private static final class Window {
+
+        private final AtomicLong count = new AtomicLong();
+        private volatile long second;
+
+        private long next(long now) {
+            if (second != now) {
+                second = now;
+                count.set(0);
+            }
+            return count.incrementAndGet();
+        }
+    }
+}
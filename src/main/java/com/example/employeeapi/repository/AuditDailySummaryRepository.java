@@ -0,0 +1,43 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.AuditDailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditDailySummaryRepository extends JpaRepository<AuditDailySummary, Long> {
+
+    List<AuditDailySummary> findBySummaryDateBetweenOrderBySummaryDateAscIdAsc(LocalDate from, LocalDate to);
+
+    /**
+     * Adds counts to the summary row for the key, creating it if needed; relies on the unique key so
+     * concurrent writers can never create two rows for one day, entity, user and action
+     */
+    @Modifying
+    @Query(value = "MERGE INTO audit_daily_summary s "
+            + "USING (VALUES (CAST(:summaryDate AS DATE), CAST(:entityName AS VARCHAR(255)), "
+            + "CAST(:username AS VARCHAR(255)), CAST(:action AS VARCHAR(255)), CAST(:entryCount AS BIGINT), "
+            + "CAST(:firstTimestamp AS TIMESTAMP), CAST(:lastTimestamp AS TIMESTAMP))) "
+            + "AS v (summary_date, entity_name, username, action, entry_count, first_timestamp, last_timestamp) "
+            + "ON s.summary_date = v.summary_date AND s.entity_name = v.entity_name "
+            + "AND s.username = v.username AND s.action = v.action "
+            + "WHEN MATCHED THEN UPDATE SET entry_count = s.entry_count + v.entry_count, "
+            + "first_timestamp = LEAST(s.first_timestamp, v.first_timestamp), "
+            + "last_timestamp = GREATEST(s.last_timestamp, v.last_timestamp) "
+            + "WHEN NOT MATCHED THEN INSERT (summary_date, entity_name, username, action, entry_count, "
+            + "first_timestamp, last_timestamp) VALUES (v.summary_date, v.entity_name, v.username, v.action, "
+            + "v.entry_count, v.first_timestamp, v.last_timestamp)", nativeQuery = true)
+    int addCounts(@Param("summaryDate") LocalDate summaryDate, @Param("entityName") String entityName,
+                  @Param("username") String username, @Param("action") String action,
+                  @Param("entryCount") long entryCount, @Param("firstTimestamp") LocalDateTime firstTimestamp,
+                  @Param("lastTimestamp") LocalDateTime lastTimestamp);
+
+    @Modifying
+    @Query("DELETE FROM AuditDailySummary s WHERE s.summaryDate < :cutoff")
+    int deleteBySummaryDateBefore(@Param("cutoff") LocalDate cutoff);
+}
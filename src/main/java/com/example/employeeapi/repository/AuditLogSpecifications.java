@@ -0,0 +1,54 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Composable filters for audit log queries.
+ * Entity and username filters use their composite indexes; time bounds also constrain the
+ * month bucket so only the matching partitions are scanned.
+ */
+public final class AuditLogSpecifications {
+
+    private AuditLogSpecifications() {
+    }
+
+    public static Specification<AuditLog> forEntity(String entityName) {
+        return (root, query, cb) -> cb.equal(root.get("entityName"), entityName);
+    }
+
+    public static Specification<AuditLog> forEntityId(Long entityId) {
+        return (root, query, cb) -> cb.equal(root.get("entityId"), entityId);
+    }
+
+    public static Specification<AuditLog> byUser(String username) {
+        return (root, query, cb) -> cb.equal(root.get("username"), username);
+    }
+
+    public static Specification<AuditLog> withAction(String action) {
+        return (root, query, cb) -> cb.equal(root.get("action"), action);
+    }
+
+    public static Specification<AuditLog> since(LocalDateTime from) {
+        int bucket = AuditLog.monthBucketOf(from);
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("monthBucket"), bucket),
+                cb.greaterThanOrEqualTo(root.get("timestamp"), from));
+    }
+
+    public static Specification<AuditLog> before(LocalDateTime to) {
+        int bucket = AuditLog.monthBucketOf(to);
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("monthBucket"), bucket),
+                cb.lessThan(root.get("timestamp"), to));
+    }
+
+    /**
+     * Keyset cursor: entries older than the last one on the previous page
+     */
+    public static Specification<AuditLog> idBelow(Long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.CacheInvalidation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    List<CacheInvalidation> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<CacheInvalidation> findByIdIn(Collection<Long> ids);
+
+    Optional<CacheInvalidation> findTopByOrderByIdDesc();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheInvalidation c WHERE c.publishedAt < :cutoff")
+    int deleteByPublishedAtBefore(@Param("cutoff") long cutoff);
+}
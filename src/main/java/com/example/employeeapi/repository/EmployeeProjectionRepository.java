@@ -0,0 +1,26 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.Employee;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldset reads that select only the requested columns
+ */
+public interface EmployeeProjectionRepository {
+
+    /**
+     * Employee attributes that can be requested in a fieldset
+     */
+    Set<String> PROJECTABLE_FIELDS = Set.of("id", "name", "email", "department", "salary", "version");
+
+    /**
+     * Rows matching the specification as field-to-value maps in the requested field order.
+     * No entities are loaded into the persistence context. A limit of 0 means unlimited.
+     */
+    List<Map<String, Object>> findProjected(Specification<Employee> specification, List<String> fields, Sort sort, int limit);
+}
@@ -0,0 +1,23 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.Employee;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-department salary rankings
+ */
+public interface EmployeeRankingRepository {
+
+    /**
+     * Top k employees of every department, ordered by salary in the given direction
+     */
+    Map<String, List<Employee>> findTopBySalaryPerDepartment(int k, Sort.Direction direction);
+
+    /**
+     * The given percentage of every department (at least one employee), ordered by salary in the given direction
+     */
+    Map<String, List<Employee>> findSalaryPercentilePerDepartment(double percent, Sort.Direction direction);
+}
@@ -0,0 +1,159 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Salary rankings computed with window functions when the database supports them, otherwise
+ * with a streaming bounded-heap selection over a forward-only cursor. Either way memory stays
+ * O(k x departments) regardless of table size.
+ */
+public class EmployeeRankingRepositoryImpl implements EmployeeRankingRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeRankingRepositoryImpl.class);
+
+    // Direction is spliced in from the enum, never from user input
+    private static final String RANKED_SQL =
+            "SELECT ranked.* FROM (" +
+            " SELECT e.*," +
+            "  ROW_NUMBER() OVER (PARTITION BY e.department ORDER BY e.salary %1$s, e.id) AS salary_rank," +
+            "  COUNT(*) OVER (PARTITION BY e.department) AS department_size" +
+            " FROM employees e) ranked" +
+            " WHERE %2$s" +
+            " ORDER BY ranked.department, ranked.salary_rank";
+
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final int PERCENT_SCALE = 10;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.ranking.strategy:auto}")
+    private String strategy;
+
+    @Value("${app.ranking.fetch-size:500}")
+    private int fetchSize;
+
+    private volatile Boolean windowFunctionsSupported;
+
+    @Override
+    public Map<String, List<Employee>> findTopBySalaryPerDepartment(int k, Sort.Direction direction) {
+        if (useWindowFunctions()) {
+            return groupByDepartment(entityManager
+                    .createNativeQuery(String.format(RANKED_SQL, direction.name(), "ranked.salary_rank <= :k"), Employee.class)
+                    .setParameter("k", k)
+                    .getResultList());
+        }
+        return selectWithHeap(department -> k, ranking(direction));
+    }
+
+    @Override
+    public Map<String, List<Employee>> findSalaryPercentilePerDepartment(double percent, Sort.Direction direction) {
+        // Exact decimal arithmetic: percent / 100.0 in binary floating point makes 30 x 10% come out above 3.
+        // Both paths use the same scale; the cast keeps the database from typing the parameter as an integer.
+        BigDecimal exactPercent = BigDecimal.valueOf(percent).setScale(PERCENT_SCALE, RoundingMode.CEILING);
+        if (useWindowFunctions()) {
+            // rank <= CEILING(size * percent / 100) without rounding: (rank - 1) * 100 < size * percent
+            return groupByDepartment(entityManager
+                    .createNativeQuery(String.format(RANKED_SQL, direction.name(),
+                            "(ranked.salary_rank - 1) * 100 < ranked.department_size * CAST(:percent AS DECIMAL(13, 10))"), Employee.class)
+                    .setParameter("percent", exactPercent)
+                    .getResultList());
+        }
+
+        Map<String, Long> departmentSizes = new HashMap<>();
+        for (Object[] row : entityManager.createQuery(
+                "SELECT e.department, COUNT(e) FROM Employee e GROUP BY e.department", Object[].class).getResultList()) {
+            departmentSizes.put((String) row[0], (Long) row[1]);
+        }
+        return selectWithHeap(
+                department -> percentileCount(departmentSizes.getOrDefault(department, 0L), exactPercent),
+                ranking(direction));
+    }
+
+    // Number of employees in the given percentage of a department, rounded up
+    static int percentileCount(long departmentSize, BigDecimal percent) {
+        return BigDecimal.valueOf(departmentSize).multiply(percent)
+                .divide(ONE_HUNDRED, 0, RoundingMode.CEILING)
+                .intValueExact();
+    }
+
+    // Single forward-only pass; the persistence context is cleared as we go so only heap contents stay reachable
+    private Map<String, List<Employee>> selectWithHeap(ToIntFunction<String> kForDepartment, Comparator<Employee> ranking) {
+        Session session = entityManager.unwrap(Session.class);
+        Map<String, TopKSelector<Employee>> selectors = new TreeMap<>();
+
+        try (ScrollableResults<Employee> rows = session.createSelectionQuery("FROM Employee", Employee.class)
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            int sinceClear = 0;
+            while (rows.next()) {
+                Employee employee = rows.get();
+                selectors.computeIfAbsent(employee.getDepartment(),
+                                department -> new TopKSelector<>(kForDepartment.applyAsInt(department), ranking))
+                        .offer(employee);
+                if (++sinceClear == fetchSize) {
+                    session.clear();
+                    sinceClear = 0;
+                }
+            }
+        }
+
+        Map<String, List<Employee>> result = new LinkedHashMap<>();
+        selectors.forEach((department, selector) -> result.put(department, selector.toSortedList()));
+        return result;
+    }
+
+    private Map<String, List<Employee>> groupByDepartment(List<?> rows) {
+        Map<String, List<Employee>> result = new LinkedHashMap<>();
+        for (Object row : rows) {
+            Employee employee = (Employee) row;
+            result.computeIfAbsent(employee.getDepartment(), department -> new ArrayList<>()).add(employee);
+        }
+        return result;
+    }
+
+    private Comparator<Employee> ranking(Sort.Direction direction) {
+        Comparator<Employee> bySalary = Comparator.comparing(Employee::getSalary);
+        return (direction.isDescending() ? bySalary.reversed() : bySalary).thenComparing(Employee::getId);
+    }
+
+    private boolean useWindowFunctions() {
+        switch (strategy) {
+            case "window":
+                return true;
+            case "heap":
+                return false;
+            default:
+                if (windowFunctionsSupported == null) {
+                    windowFunctionsSupported = entityManager.getEntityManagerFactory()
+                            .unwrap(SessionFactoryImplementor.class)
+                            .getJdbcServices().getDialect()
+                            .supportsWindowFunctions();
+                    logger.info("Salary rankings will use {}", windowFunctionsSupported ? "window functions" : "heap selection");
+                }
+                return windowFunctionsSupported;
+        }
+    }
+}
@@ -2,13 +2,19 @@ package com.example.employeeapi.repository;
 
 import com.example.employeeapi.entity.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeRankingRepository, EmployeeProjectionRepository {
 
     // Custom query methods
     Optional<Employee> findByEmail(String email);
@@ -18,4 +24,21 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     List<Employee> findByNameContainingIgnoreCase(String name);
 
     boolean existsByEmail(String email);
+
+    // Version lookup for conditional requests without loading the entity
+    @Query("SELECT e.version FROM Employee e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Copy a row to another shard under its existing id when its department moves there
+    @Modifying
+    @Query(value = "INSERT INTO employees (id, name, email, department, salary, version, name_lower) "
+            + "VALUES (:id, :name, :email, :department, :salary, :version, :nameLower)", nativeQuery = true)
+    int insertWithId(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                     @Param("department") String department, @Param("salary") BigDecimal salary,
+                     @Param("version") Long version, @Param("nameLower") String nameLower);
+
+    // Remove a row only if nobody changed it since it was read
+    @Modifying
+    @Query("DELETE FROM Employee e WHERE e.id = :id AND e.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -0,0 +1,54 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.Employee;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Composable filters for employee queries.
+ * Each filter maps onto an indexed column: department and salary use the (department, salary)
+ * and salary indexes, name prefixes use the lower-cased name column.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Employee> inDepartment(String department) {
+        return (root, query, cb) -> cb.equal(root.get("department"), department);
+    }
+
+    public static Specification<Employee> salaryAtLeast(BigDecimal minSalary) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("salary"), minSalary);
+    }
+
+    public static Specification<Employee> salaryAtMost(BigDecimal maxSalary) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("salary"), maxSalary);
+    }
+
+    /**
+     * Case-insensitive name prefix; anchored LIKE so the name_lower index can be range-scanned
+     */
+    public static Specification<Employee> nameStartsWith(String prefix) {
+        String pattern = escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(root.get("nameLower"), pattern, '\\');
+    }
+
+    /**
+     * Case-insensitive substring match, same semantics as findByNameContainingIgnoreCase
+     */
+    public static Specification<Employee> nameContains(String part) {
+        String pattern = "%" + escapeLike(part.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(root.get("nameLower"), pattern, '\\');
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * Takes the lease if it has expired, or extends it if the owner already holds it; returns 1 on success
+     */
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedBy = :owner, l.lockedUntil = :until "
+            + "WHERE l.name = :name AND (l.lockedUntil <= :now OR l.lockedBy = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") long now,
+                @Param("until") long until);
+
+    @Modifying
+    @Query("UPDATE JobLock l SET l.lockedBy = NULL, l.lockedUntil = 0 WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,60 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.Employee;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking reads of the employees table over R2DBC, mapped onto the JPA {@link Employee} class.
+ * Rows are pulled from the driver as the subscriber requests them.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS = "SELECT id, name, email, department, salary, version FROM employees";
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    public Flux<Employee> findAll() {
+        return reactiveDatabaseClient.sql(COLUMNS + " ORDER BY id")
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Mono<Employee> findById(Long id) {
+        return reactiveDatabaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Flux<Employee> findByDepartment(String department) {
+        return reactiveDatabaseClient.sql(COLUMNS + " WHERE department = :department ORDER BY id")
+                .bind("department", department)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return reactiveDatabaseClient.sql("SELECT COUNT(*) FROM employees")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static Employee toEmployee(Readable row) {
+        Employee employee = new Employee(row.get("name", String.class), row.get("email", String.class),
+                row.get("department", String.class), row.get("salary", BigDecimal.class));
+        employee.setId(row.get("id", Long.class));
+        employee.setVersion(row.get("version", Long.class));
+        return employee;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.employeeapi.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded heap keeping the best k items seen so far according to a ranking comparator
+ * (smaller compares as better). Memory stays O(k) however many items are offered.
+ */
+public class TopKSelector<T> {
+
+    private final int k;
+    private final Comparator<T> ranking;
+    // Worst retained item sits at the head so it can be replaced in O(log k)
+    private final PriorityQueue<T> heap;
+
+    public TopKSelector(int k, Comparator<T> ranking) {
+        this.k = k;
+        this.ranking = ranking;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), ranking.reversed());
+    }
+
+    public void offer(T item) {
+        if (k <= 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (ranking.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    /**
+     * Retained items, best first
+     */
+    public List<T> toSortedList() {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(ranking);
+        return items;
+    }
+}
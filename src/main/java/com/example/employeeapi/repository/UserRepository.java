@@ -38,6 +38,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByActiveTrue();
 
+    /**
+     * Count active users
+     */
+    long countByActiveTrue();
+
+    /**
+     * Count active users with a role
+     */
+    @Query("SELECT COUNT(DISTINCT u) FROM User u JOIN u.roles r WHERE r = :role AND u.active = true")
+    long countActiveByRole(@Param("role") Role role);
+
     /**
      * Find users by role
      */
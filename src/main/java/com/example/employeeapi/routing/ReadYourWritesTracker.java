@@ -0,0 +1,40 @@
+package com.example.employeeapi.routing;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers when each user last committed a write so their next reads can stay on the primary
+ * until replicas have had time to catch up
+ */
+public class ReadYourWritesTracker {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long stickyWindowMs;
+    private final ConcurrentMap<String, Long> lastWriteMillis = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyWindowMs) {
+        this.stickyWindowMs = stickyWindowMs;
+    }
+
+    public void recordWrite(String username) {
+        long now = System.currentTimeMillis();
+        lastWriteMillis.put(username, now);
+        if (lastWriteMillis.size() > CLEANUP_THRESHOLD) {
+            lastWriteMillis.values().removeIf(written -> now - written > stickyWindowMs);
+        }
+    }
+
+    public boolean isSticky(String username) {
+        Long written = lastWriteMillis.get(username);
+        if (written == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - written > stickyWindowMs) {
+            lastWriteMillis.remove(username, written);
+            return false;
+        }
+        return true;
+    }
+}
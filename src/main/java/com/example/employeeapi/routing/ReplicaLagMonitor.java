@@ -0,0 +1,105 @@
+package com.example.employeeapi.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures replica lag with a heartbeat row: each probe first reads the heartbeat on every replica,
+ * compares it with the value last written to the primary, then writes a fresh one. Replicas that
+ * are too far behind, or cannot be queried, are taken out of rotation until they catch up.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primaryJdbc;
+    private final List<ReplicaNode> replicas;
+    private final Map<ReplicaNode, JdbcTemplate> replicaJdbc = new HashMap<>();
+    private final long maxLagMs;
+
+    private final Set<ReplicaNode> reportedOut = ConcurrentHashMap.newKeySet();
+
+    private volatile long lastBeat;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primaryJdbc = new JdbcTemplate(routingDataSource.getPrimary());
+        this.replicas = routingDataSource.getReplicas();
+        this.maxLagMs = maxLagMs;
+
+        for (ReplicaNode replica : replicas) {
+            JdbcTemplate jdbc = new JdbcTemplate(replica.getDataSource());
+            jdbc.setQueryTimeout(1);
+            replicaJdbc.put(replica, jdbc);
+
+            Gauge.builder("datasource.replica.lag", replica, ReplicaNode::getLagMs)
+                    .tag("replica", replica.getName())
+                    .description("Replica lag behind the primary in ms, -1 when unknown")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, node -> node.isHealthy() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void createHeartbeatTable() {
+        primaryJdbc.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat BIGINT NOT NULL)");
+        writeBeat();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.probe-interval-ms:1000}")
+    public void probe() {
+        long expected = lastBeat;
+        for (ReplicaNode replica : replicas) {
+            try {
+                Long seen = replicaJdbc.get(replica).queryForObject(
+                        "SELECT beat FROM replication_heartbeat WHERE id = 1", Long.class);
+                long lag = seen == null ? Long.MAX_VALUE : Math.max(0, expected - seen);
+                if (lag <= maxLagMs) {
+                    if (!replica.isHealthy()) {
+                        logger.info("Replica {} is in rotation (lag {} ms)", replica.getName(), lag);
+                    }
+                    replica.markHealthy(lag);
+                    reportedOut.remove(replica);
+                } else {
+                    markOut(replica, lag, "lag " + lag + " ms");
+                }
+            } catch (RuntimeException e) {
+                markOut(replica, -1, e.getMessage());
+            }
+        }
+        writeBeat();
+    }
+
+    private void markOut(ReplicaNode replica, long lag, String reason) {
+        // Log transitions only, not every failed probe
+        if (reportedOut.add(replica)) {
+            logger.warn("Replica {} is out of rotation: {}", replica.getName(), reason);
+        }
+        replica.markUnhealthy(lag);
+    }
+
+    private void writeBeat() {
+        long beat = System.currentTimeMillis();
+        try {
+            if (primaryJdbc.update("UPDATE replication_heartbeat SET beat = ? WHERE id = 1", beat) == 0) {
+                primaryJdbc.update("INSERT INTO replication_heartbeat (id, beat) VALUES (1, ?)", beat);
+            }
+            lastBeat = beat;
+        } catch (RuntimeException e) {
+            logger.warn("Could not write replication heartbeat: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.employeeapi.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * One read replica with its own connection pool and the health the lag monitor last observed
+ */
+public class ReplicaNode {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final int weight;
+
+    private volatile boolean healthy;
+    private volatile long lagMs = -1;
+
+    public ReplicaNode(String name, HikariDataSource dataSource, int weight) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.weight = Math.max(1, weight);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public void markHealthy(long lagMs) {
+        this.lagMs = lagMs;
+        this.healthy = true;
+    }
+
+    public void markUnhealthy(long lagMs) {
+        this.lagMs = lagMs;
+        this.healthy = false;
+    }
+
+    // Borrowed connections; zero until the pool has started
+    public int getActiveConnections() {
+        return dataSource.getHikariPoolMXBean() != null ? dataSource.getHikariPoolMXBean().getActiveConnections() : 0;
+    }
+}
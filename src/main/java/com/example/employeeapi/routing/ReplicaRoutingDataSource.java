@@ -0,0 +1,142 @@
+package com.example.employeeapi.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * Replicas are picked by weighted least connections among those the lag monitor reports as
+ * caught up; a user whose write committed within the sticky window keeps reading from the
+ * primary so they always see their own changes.
+ * Must sit behind a LazyConnectionDataSourceProxy so the connection is only fetched once the
+ * transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final ConcurrentMap<String, Counter> routingCounters = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<ReplicaNode> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.meterRegistry = meterRegistry;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaNode replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<ReplicaNode> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Whether the current user's reads go to the primary because their last write is still within
+     * the sticky window
+     */
+    public boolean isCurrentUserSticky() {
+        String username = currentUsername();
+        return username != null && readYourWritesTracker.isSticky(username);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesTracker.recordWrite(username);
+                    }
+                });
+            }
+            return route(PRIMARY, "write");
+        }
+        if (username != null && readYourWritesTracker.isSticky(username)) {
+            return route(PRIMARY, "sticky");
+        }
+        ReplicaNode replica = selectReplica();
+        if (replica == null) {
+            return route(PRIMARY, "no-replica");
+        }
+        return route(replica.getName(), "read");
+    }
+
+    // Weighted least connections: lowest (active + 1) / weight wins; the rotating start spreads ties
+    private ReplicaNode selectReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+        ReplicaNode best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            double score = (replica.getActiveConnections() + 1.0) / replica.getWeight();
+            if (score < bestScore) {
+                best = replica;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private String route(String target, String reason) {
+        routingCounters.computeIfAbsent(target + '|' + reason, key -> Counter.builder("datasource.routing")
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Connections handed out per target database")
+                .register(meterRegistry)).increment();
+        return target;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    @Override
+    public void destroy() {
+        for (ReplicaNode replica : replicas) {
+            replica.getDataSource().close();
+        }
+        primary.close();
+    }
+}
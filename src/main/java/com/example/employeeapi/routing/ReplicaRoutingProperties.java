@@ -0,0 +1,42 @@
+package com.example.employeeapi.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings under {@code app.datasource.replicas}; bound as a class because the replica list
+ * cannot be expressed with {@code @Value}
+ */
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+@Getter
+@Setter
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+
+    /** Replicas further behind the primary than this are skipped */
+    private long maxLagMs = 2000;
+
+    /** After a user's write commits, their reads stay on the primary for this long */
+    private long stickyWindowMs = 5000;
+
+    private long probeIntervalMs = 1000;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int weight = 1;
+        private int maxPoolSize = 10;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.employeeapi.security;
 
 import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.jfr.RecordingContext;
+import com.example.employeeapi.jfr.TokenEvent;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -36,13 +38,24 @@ public class JwtUtil {
             claims.put("roles", roleNames);
         }
         
-        return Jwts.builder()
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        String token = Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hr
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOperation("sign");
+            event.setValid(true);
+            event.setUser(username);
+            event.setEndpoint(RecordingContext.currentEndpoint());
+            event.commit();
+        }
+        return token;
     }
 
     public boolean validateToken(String token, String username) {
@@ -98,11 +111,27 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Every claim lookup parses and verifies the token again; the JWT events show how often
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        TokenEvent event = new TokenEvent();
+        event.begin();
+        Claims claims = null;
+        try {
+            claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            return claims;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setOperation("parse");
+                event.setValid(claims != null);
+                event.setUser(claims != null ? claims.getSubject() : null);
+                event.setEndpoint(RecordingContext.currentEndpoint());
+                event.commit();
+            }
+        }
     }
 }
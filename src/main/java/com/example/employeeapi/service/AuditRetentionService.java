@@ -0,0 +1,325 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.AuditLog;
+import com.example.employeeapi.entity.JobLock;
+import com.example.employeeapi.limiter.AdaptiveConcurrencyLimiter;
+import com.example.employeeapi.repository.AuditDailySummaryRepository;
+import com.example.employeeapi.repository.AuditLogRepository;
+import com.example.employeeapi.repository.AuditLogSpecifications;
+import com.example.employeeapi.repository.JobLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the audit log bounded.
+ * Detail rows older than the retention window are folded into daily summaries and deleted in
+ * small batches; each batch commits its summary updates and deletes together, so a crash never
+ * double-counts or loses rows. Between batches the job backs off while the request limiters
+ * report high utilization, so foreground traffic keeps priority.
+ * Only one node runs a pass at a time: the pass holds a lease on the audit-retention row of
+ * job_lock and renews it before every batch.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRetentionService.class);
+
+    private static final String LOCK_NAME = "audit-retention";
+    private static final String UNKNOWN = "unknown";
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Absent when load shedding is disabled
+    @Autowired(required = false)
+    private List<AdaptiveConcurrencyLimiter> limiters = Collections.emptyList();
+
+    @Value("${app.audit.retention.detail-days:90}")
+    private int detailRetentionDays;
+
+    @Value("${app.audit.retention.summary-days:730}")
+    private int summaryRetentionDays;
+
+    @Value("${app.audit.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.audit.retention.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${app.audit.retention.max-utilization:0.75}")
+    private double maxUtilization;
+
+    @Value("${app.audit.retention.max-throttle-ms:60000}")
+    private long maxThrottleMs;
+
+    // Longer than the slowest batch plus throttling, so a live pass never loses its lease
+    @Value("${app.audit.retention.lock-lease-ms:600000}")
+    private long lockLeaseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final String lockOwner = UUID.randomUUID().toString();
+
+    private TransactionTemplate batchTransaction;
+    private Counter rolledUpRows;
+    private Counter deletedSummaries;
+    private Counter throttledPauses;
+    private Timer runTimer;
+
+    @PostConstruct
+    void init() {
+        batchTransaction = new TransactionTemplate(transactionManager);
+        // Keep lock hold times short even if the database is slow
+        batchTransaction.setTimeout(30);
+
+        rolledUpRows = Counter.builder("audit.retention.rows")
+                .description("Audit log rows rolled up into daily summaries and deleted")
+                .register(meterRegistry);
+        deletedSummaries = Counter.builder("audit.retention.summaries.deleted")
+                .description("Daily summaries removed after the summary retention window")
+                .register(meterRegistry);
+        throttledPauses = Counter.builder("audit.retention.throttled")
+                .description("Pauses taken because foreground load was high")
+                .register(meterRegistry);
+        runTimer = Timer.builder("audit.retention.run")
+                .description("Duration of audit retention runs")
+                .register(meterRegistry);
+        Gauge.builder("audit.retention.running", running, flag -> flag.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.audit.retention.cron:0 15 3 * * *}")
+    public void runScheduled() {
+        runRetention();
+    }
+
+    /**
+     * Run one retention pass; returns the number of detail rows rolled up, or -1 if a pass is already
+     * running here or on another node
+     */
+    public long runRetention() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Audit retention already running, skipping");
+            return -1;
+        }
+        try {
+            if (!acquireLock()) {
+                logger.info("Audit retention is running on another node, skipping");
+                return -1;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                return rollUpAndPurge();
+            } finally {
+                sample.stop(runTimer);
+                releaseLock();
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Takes or renews the lease; the lock row is created on first use by whichever node gets there first
+    private boolean acquireLock() {
+        if (!jobLockRepository.existsById(LOCK_NAME)) {
+            try {
+                batchTransaction.executeWithoutResult(status -> jobLockRepository.saveAndFlush(new JobLock(LOCK_NAME)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it
+            }
+        }
+        long now = System.currentTimeMillis();
+        Integer acquired = batchTransaction.execute(
+                status -> jobLockRepository.acquire(LOCK_NAME, lockOwner, now, now + lockLeaseMs));
+        return acquired != null && acquired == 1;
+    }
+
+    private void releaseLock() {
+        batchTransaction.executeWithoutResult(status -> jobLockRepository.release(LOCK_NAME, lockOwner));
+    }
+
+    private long rollUpAndPurge() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(detailRetentionDays).atStartOfDay();
+        logger.info("Audit retention started: rolling up entries before {}", cutoff);
+
+        long total = 0;
+        int batches = 0;
+        while (true) {
+            if (!waitForCapacity()) {
+                logger.info("Audit retention stopped early under sustained load after {} rows; the next run resumes", total);
+                break;
+            }
+            if (!acquireLock()) {
+                logger.warn("Audit retention lost its lock after {} rows; another node took over", total);
+                break;
+            }
+            Integer processed = batchTransaction.execute(status -> rollUpBatch(cutoff));
+            if (processed == null || processed == 0) {
+                break;
+            }
+            total += processed;
+            rolledUpRows.increment(processed);
+            if (++batches % 50 == 0) {
+                logger.info("Audit retention progress: {} rows in {} batches", total, batches);
+            }
+            sleep(pauseMs);
+        }
+
+        LocalDate summaryCutoff = LocalDate.now().minusDays(summaryRetentionDays);
+        Integer purged = batchTransaction.execute(status -> summaryRepository.deleteBySummaryDateBefore(summaryCutoff));
+        if (purged != null && purged > 0) {
+            deletedSummaries.increment(purged);
+        }
+
+        logger.info("Audit retention finished: {} rows rolled up in {} batches, {} old summaries removed",
+                total, batches, purged);
+        return total;
+    }
+
+    // Oldest rows first; ids grow with time so the scan stops early on the primary key
+    private int rollUpBatch(LocalDateTime cutoff) {
+        List<AuditLog> rows = auditLogRepository.findBy(AuditLogSpecifications.before(cutoff),
+                query -> query.sortBy(Sort.by("id")).limit(batchSize).all());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // Aggregate the batch in memory, then add it to the stored summaries with one upsert per key
+        Map<SummaryKey, Counts> summaries = new HashMap<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (AuditLog row : rows) {
+            summaries.computeIfAbsent(new SummaryKey(row.getTimestamp().toLocalDate(), orUnknown(row.getEntityName()),
+                            orUnknown(row.getUsername()), orUnknown(row.getAction())), key -> new Counts())
+                    .add(row.getTimestamp());
+            ids.add(row.getId());
+        }
+
+        summaries.forEach((key, counts) -> summaryRepository.addCounts(key.date, key.entityName, key.username,
+                key.action, counts.entries, counts.first, counts.last));
+        auditLogRepository.deleteAllByIdInBatch(ids);
+        return rows.size();
+    }
+
+    // Returns false if load stayed high for longer than max-throttle-ms
+    private boolean waitForCapacity() {
+        long waited = 0;
+        while (isForegroundBusy()) {
+            if (waited >= maxThrottleMs) {
+                return false;
+            }
+            throttledPauses.increment();
+            long pause = Math.max(pauseMs, 1000);
+            sleep(pause);
+            waited += pause;
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    private boolean isForegroundBusy() {
+        for (AdaptiveConcurrencyLimiter limiter : limiters) {
+            if (limiter.getUtilization() > maxUtilization) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String orUnknown(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+
+    private static final class Counts {
+
+        private long entries;
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        private void add(LocalDateTime timestamp) {
+            entries++;
+            if (first == null || timestamp.isBefore(first)) {
+                first = timestamp;
+            }
+            if (last == null || timestamp.isAfter(last)) {
+                last = timestamp;
+            }
+        }
+    }
+
+    private static final class SummaryKey {
+
+        private final LocalDate date;
+        private final String entityName;
+        private final String username;
+        private final String action;
+
+        private SummaryKey(LocalDate date, String entityName, String username, String action) {
+            this.date = date;
+            this.entityName = entityName;
+            this.username = username;
+            this.action = action;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SummaryKey other)) {
+                return false;
+            }
+            return date.equals(other.date) && Objects.equals(entityName, other.entityName)
+                    && Objects.equals(username, other.username) && Objects.equals(action, other.action);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, entityName, username, action);
+        }
+    }
+}
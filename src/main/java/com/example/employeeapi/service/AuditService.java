@@ -0,0 +1,92 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.AuditDailySummary;
+import com.example.employeeapi.entity.AuditLog;
+import com.example.employeeapi.repository.AuditDailySummaryRepository;
+import com.example.employeeapi.repository.AuditLogRepository;
+import com.example.employeeapi.repository.AuditLogSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class AuditService {
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditDailySummaryRepository auditDailySummaryRepository;
+
+    /**
+     * Newest-first page of audit entries matching every non-null filter, starting below the cursor id.
+     * One extra row is fetched to tell whether another page exists, so no COUNT query is needed.
+     */
+    public AuditPage queryAuditLogs(String entityName, Long entityId, String username, String action,
+                                    LocalDateTime from, LocalDateTime to, Long beforeId, int limit) {
+        List<Specification<AuditLog>> filters = new ArrayList<>();
+        if (entityName != null) {
+            filters.add(AuditLogSpecifications.forEntity(entityName));
+        }
+        if (entityId != null) {
+            filters.add(AuditLogSpecifications.forEntityId(entityId));
+        }
+        if (username != null) {
+            filters.add(AuditLogSpecifications.byUser(username));
+        }
+        if (action != null) {
+            filters.add(AuditLogSpecifications.withAction(action));
+        }
+        if (from != null) {
+            filters.add(AuditLogSpecifications.since(from));
+        }
+        if (to != null) {
+            filters.add(AuditLogSpecifications.before(to));
+        }
+        if (beforeId != null) {
+            filters.add(AuditLogSpecifications.idBelow(beforeId));
+        }
+
+        List<AuditLog> rows = auditLogRepository.findBy(Specification.allOf(filters),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(limit + 1).all());
+        boolean hasMore = rows.size() > limit;
+        List<AuditLog> items = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new AuditPage(new ArrayList<>(items), nextCursor);
+    }
+
+    /**
+     * Daily roll-ups written by the retention job for dates in [from, to]
+     */
+    public List<AuditDailySummary> getDailySummaries(LocalDate from, LocalDate to) {
+        return auditDailySummaryRepository.findBySummaryDateBetweenOrderBySummaryDateAscIdAsc(from, to);
+    }
+
+    public static final class AuditPage {
+
+        private final List<AuditLog> items;
+        private final Long nextCursor;
+
+        public AuditPage(List<AuditLog> items, Long nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<AuditLog> getItems() {
+            return items;
+        }
+
+        // Pass back as ?before= to get the next page; null on the last page
+        public Long getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.enums.Role;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * User and role counts maintained incrementally from directory changes, so reading them is O(1).
+ * Role counts only include active users, matching {@link UserService#getUsersByRole}.
+ */
+@Component
+public class DirectoryStatistics implements UserDirectoryListener {
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong activeUsers = new AtomicLong();
+    private final Map<Role, AtomicLong> activeUsersByRole = new EnumMap<>(Role.class);
+    private volatile boolean loaded;
+
+    public DirectoryStatistics(MeterRegistry meterRegistry) {
+        for (Role role : Role.values()) {
+            activeUsersByRole.put(role, new AtomicLong());
+        }
+
+        Gauge.builder("users.total", totalUsers, AtomicLong::get)
+                .description("Registered users")
+                .register(meterRegistry);
+        Gauge.builder("users.active", activeUsers, AtomicLong::get)
+                .description("Active users")
+                .register(meterRegistry);
+        activeUsersByRole.forEach((role, count) -> Gauge.builder("users.active.by.role", count, AtomicLong::get)
+                .tag("role", role.name())
+                .description("Active users holding the role")
+                .register(meterRegistry));
+    }
+
+    @Override
+    public synchronized void onDirectoryLoaded(Collection<UserSnapshot> users) {
+        totalUsers.set(0);
+        activeUsers.set(0);
+        activeUsersByRole.values().forEach(count -> count.set(0));
+        for (UserSnapshot user : users) {
+            apply(user, 1);
+        }
+        loaded = true;
+    }
+
+    @Override
+    public synchronized void onUserChanged(UserSnapshot before, UserSnapshot after) {
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    /**
+     * False until the startup load has run; callers should fall back to the database until then
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long getTotalUsers() {
+        return totalUsers.get();
+    }
+
+    public long getActiveUsers() {
+        return activeUsers.get();
+    }
+
+    public long getActiveUsersWithRole(Role role) {
+        return activeUsersByRole.get(role).get();
+    }
+
+    private void apply(UserSnapshot user, int delta) {
+        totalUsers.addAndGet(delta);
+        if (user.isActive()) {
+            activeUsers.addAndGet(delta);
+            for (Role role : user.getRoles()) {
+                activeUsersByRole.get(role).addAndGet(delta);
+            }
+        }
+    }
+}
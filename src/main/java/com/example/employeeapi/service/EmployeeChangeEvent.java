@@ -0,0 +1,55 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.enums.ChangeType;
+
+import java.time.Instant;
+
+/**
+ * Immutable change notification for a single employee; instances are shared by all subscribers
+ */
+public final class EmployeeChangeEvent {
+
+    private final long sequence;
+    private final ChangeType type;
+    private final Long employeeId;
+    private final Long version;
+    private final Instant timestamp;
+
+    public EmployeeChangeEvent(long sequence, ChangeType type, Long employeeId, Long version) {
+        this.sequence = sequence;
+        this.type = type;
+        this.employeeId = employeeId;
+        this.version = version;
+        this.timestamp = Instant.now();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeChangeEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", employeeId=" + employeeId +
+                ", version=" + version +
+                '}';
+    }
+}
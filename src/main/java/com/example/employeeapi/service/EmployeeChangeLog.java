@@ -0,0 +1,172 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.enums.ChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fixed-size ring buffer of committed employee changes.
+ * Writers are serialized; readers never lock and only keep their own sequence cursor,
+ * so any number of subscribers share the same event instances.
+ * Sequences restart with the application, so clients get cursors that also name this start
+ * (epoch-sequence); a cursor from another start cannot be mapped onto this log's sequences.
+ */
+@Component
+public class EmployeeChangeLog {
+
+    private final EmployeeChangeEvent[] ring;
+    private final int mask;
+    // Random rather than the start time, so two quick restarts never share it
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private volatile long lastSequence = 0;
+    private volatile CompletableFuture<Void> nextPublish = new CompletableFuture<>();
+
+    public EmployeeChangeLog(@Value("${app.changes.buffer-size:4096}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.ring = new EmployeeChangeEvent[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Append a change and wake up everyone waiting for new events
+     */
+    public synchronized void publish(ChangeType type, Long employeeId, Long version) {
+        long sequence = lastSequence + 1;
+        ring[(int) (sequence & mask)] = new EmployeeChangeEvent(sequence, type, employeeId, version);
+        lastSequence = sequence;
+
+        CompletableFuture<Void> signal = nextPublish;
+        nextPublish = new CompletableFuture<>();
+        signal.complete(null);
+    }
+
+    /**
+     * Read up to max events published after the given sequence.
+     * The batch is flagged as reset when events were lost (overwritten, or the cursor
+     * is from before a restart), in which case the client should resynchronize.
+     */
+    public Batch read(long afterSequence, int max) {
+        long last = lastSequence;
+        if (afterSequence > last) {
+            return new Batch(Collections.emptyList(), last, cursor(last), true);
+        }
+
+        long oldest = Math.max(1, last - ring.length + 1);
+        long from = afterSequence + 1;
+        boolean reset = false;
+        if (from < oldest) {
+            from = oldest;
+            reset = true;
+        }
+
+        long to = Math.min(last, from + max - 1);
+        List<EmployeeChangeEvent> events = new ArrayList<>((int) Math.max(0, to - from + 1));
+        for (long sequence = from; sequence <= to; sequence++) {
+            EmployeeChangeEvent event = ring[(int) (sequence & mask)];
+            if (event == null || event.getSequence() != sequence) {
+                // Overwritten by a writer that lapped this reader
+                reset = true;
+                continue;
+            }
+            events.add(event);
+        }
+        long resumeAt = Math.max(afterSequence, to);
+        return new Batch(events, resumeAt, cursor(resumeAt), reset);
+    }
+
+    /**
+     * Read up to max events after a client's cursor; one from another start of the application
+     * is a reset, and the client gets this start's events from the beginning of the buffer
+     */
+    public Batch read(String cursor, int max) {
+        long afterSequence = sequenceOf(cursor);
+        if (afterSequence < 0) {
+            Batch batch = read(0, max);
+            return new Batch(batch.getEvents(), batch.getLastSequence(), batch.getCursor(), true);
+        }
+        return read(afterSequence, max);
+    }
+
+    /**
+     * Cursor for resuming after the sequence, as handed to clients
+     */
+    public String cursor(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sequence a cursor from this start of the application points at, or -1 for anything else
+     */
+    public long sequenceOf(String cursor) {
+        int separator = cursor.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(cursor.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(cursor.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Future completing once an event after the given sequence exists.
+     * All waiters share one future per publish instead of registering individually.
+     */
+    public CompletableFuture<Void> awaitAfter(long sequence) {
+        CompletableFuture<Void> signal = nextPublish;
+        if (lastSequence > sequence) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return signal;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Events returned by a read, with the cursor to resume from
+     */
+    public static final class Batch {
+
+        private final List<EmployeeChangeEvent> events;
+        private final long lastSequence;
+        private final String cursor;
+        private final boolean reset;
+
+        public Batch(List<EmployeeChangeEvent> events, long lastSequence, String cursor, boolean reset) {
+            this.events = events;
+            this.lastSequence = lastSequence;
+            this.cursor = cursor;
+            this.reset = reset;
+        }
+
+        public List<EmployeeChangeEvent> getEvents() {
+            return events;
+        }
+
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        public String getCursor() {
+            return cursor;
+        }
+
+        public boolean isReset() {
+            return reset;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.employeeapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers employee change events to Server-Sent Events subscribers and long-poll clients.
+ * Each subscriber only holds a cursor into the shared {@link EmployeeChangeLog}; a subscriber
+ * that falls behind by more than the buffer size gets a reset event instead of unbounded queueing.
+ */
+@Service
+public class EmployeeChangeStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeChangeStreamService.class);
+
+    private final EmployeeChangeLog changeLog;
+    private final long sseTimeoutMs;
+    private final int maxSubscribers;
+    private final int batchSize;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Blocking writes to slow clients only park a virtual thread
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long dispatchedSequence;
+
+    public EmployeeChangeStreamService(EmployeeChangeLog changeLog,
+                                       @Value("${app.changes.sse-timeout-ms:1800000}") long sseTimeoutMs,
+                                       @Value("${app.changes.max-subscribers:1000}") int maxSubscribers,
+                                       @Value("${app.changes.batch-size:256}") int batchSize,
+                                       @Value("${app.changes.heartbeat-interval-ms:15000}") long heartbeatIntervalMs) {
+        this.changeLog = changeLog;
+        this.sseTimeoutMs = sseTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.batchSize = batchSize;
+        this.dispatchedSequence = changeLog.getLastSequence();
+        armDispatcher();
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a Server-Sent Events stream starting after the given cursor (null means "from now")
+     */
+    public SseEmitter subscribe(String afterCursor) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        long afterSequence = afterCursor != null ? changeLog.sequenceOf(afterCursor) : changeLog.getLastSequence();
+        // A cursor from another start: replay this start's events after telling the client to resync
+        Subscriber subscriber = afterSequence < 0
+                ? new Subscriber(emitter, 0, true)
+                : new Subscriber(emitter, afterSequence, false);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        logger.debug("Change stream subscriber added at sequence {} ({} active)", subscriber.cursor, subscribers.size());
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Long-poll: complete immediately when events after the cursor exist (null means from the
+     * start of the buffer), otherwise wait for the next publish; a timeout of 0 or less never waits
+     */
+    public DeferredResult<EmployeeChangeLog.Batch> poll(String afterCursor, long timeoutMs, int limit) {
+        int max = Math.min(limit, batchSize);
+        EmployeeChangeLog.Batch batch = afterCursor != null ? changeLog.read(afterCursor, max) : changeLog.read(0, max);
+        // Containers take a timeout of 0 as "never time out", so the deferred result never gets one
+        DeferredResult<EmployeeChangeLog.Batch> result = new DeferredResult<>(Math.max(1, timeoutMs),
+                () -> changeLog.read(batch.getLastSequence(), max));
+        if (!batch.getEvents().isEmpty() || batch.isReset() || timeoutMs <= 0) {
+            result.setResult(batch);
+            return result;
+        }
+        long afterSequence = batch.getLastSequence();
+        changeLog.awaitAfter(afterSequence).thenRunAsync(() -> {
+            if (!result.isSetOrExpired()) {
+                result.setResult(changeLog.read(afterSequence, max));
+            }
+        }, deliveryExecutor);
+        return result;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Single shared wait on the change log; each publish fans out to all subscribers
+    private void armDispatcher() {
+        changeLog.awaitAfter(dispatchedSequence).thenRunAsync(() -> {
+            dispatchedSequence = changeLog.getLastSequence();
+            for (Subscriber subscriber : subscribers) {
+                scheduleDrain(subscriber);
+            }
+            armDispatcher();
+        }, deliveryExecutor);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.busy.compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                EmployeeChangeLog.Batch batch = changeLog.read(subscriber.cursor, batchSize);
+                if (batch.isReset() || subscriber.resetPending) {
+                    subscriber.resetPending = false;
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("reset")
+                            .data(Map.of("lastSequence", batch.getLastSequence(), "cursor", batch.getCursor())));
+                }
+                for (EmployeeChangeEvent event : batch.getEvents()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(changeLog.cursor(event.getSequence()))
+                            .name(event.getType().name().toLowerCase(Locale.ROOT))
+                            .data(event));
+                }
+                subscriber.cursor = batch.getLastSequence();
+                if (batch.getEvents().isEmpty()) {
+                    break;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping change stream subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            release(subscriber);
+        }
+    }
+
+    private void release(Subscriber subscriber) {
+        subscriber.busy.set(false);
+        // Catch events published while the busy flag was still set
+        if (subscribers.contains(subscriber) && changeLog.getLastSequence() > subscriber.cursor) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // Subscribers that are busy receiving events do not need a heartbeat
+            if (subscriber.busy.compareAndSet(false, true)) {
+                deliveryExecutor.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        subscribers.remove(subscriber);
+                        subscriber.emitter.completeWithError(e);
+                    } finally {
+                        release(subscriber);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        deliveryExecutor.shutdownNow();
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean resetPending;
+
+        private Subscriber(SseEmitter emitter, long cursor, boolean resetPending) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.resetPending = resetPending;
+        }
+    }
+}
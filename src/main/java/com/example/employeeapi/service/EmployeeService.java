@@ -1,13 +1,42 @@
 package com.example.employeeapi.service;
 
 import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.enums.ChangeType;
+import com.example.employeeapi.invalidation.InvalidationBus;
+import com.example.employeeapi.invalidation.InvalidationMessage;
 import com.example.employeeapi.repository.EmployeeRepository;
+import com.example.employeeapi.repository.EmployeeSpecifications;
+import com.example.employeeapi.routing.ReplicaRoutingDataSource;
+import com.example.employeeapi.sharding.EmployeeEmailIndex;
+import com.example.employeeapi.sharding.ShardExecutor;
+import com.example.employeeapi.sharding.ShardMerge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -16,82 +45,487 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EmployeeVersionCache employeeVersionCache;
+
+    @Autowired
+    private EmployeeChangeLog employeeChangeLog;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private ShardExecutor shardExecutor;
+
+    // Present only when the employees table is sharded
+    @Autowired(required = false)
+    private EmployeeEmailIndex emailIndex;
+
+    // Present only when reads are routed to replicas
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRouting;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.batch-get.chunk-size:100}")
+    private int batchGetChunkSize;
+
+    @Value("${app.coalescing.linger-ms:20}")
+    private long coalescingLingerMs;
+
+    // Concurrent identical reads share one query; writes invalidate the affected keys
+    private RequestCoalescer<String, List<Employee>> allEmployeesReads;
+    private RequestCoalescer<Long, Optional<Employee>> employeeByIdReads;
+    private RequestCoalescer<String, List<Employee>> departmentReads;
+    private RequestCoalescer<String, List<Employee>> nameSearchReads;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initReadCoalescing() {
+        // Employees are mutable entities, so each caller gets its own copies of the shared result
+        allEmployeesReads = new RequestCoalescer<>("employees.all", coalescingLingerMs, meterRegistry,
+                EmployeeService::copyAll);
+        employeeByIdReads = new RequestCoalescer<>("employees.by-id", coalescingLingerMs, meterRegistry,
+                employee -> employee.map(Employee::copy));
+        departmentReads = new RequestCoalescer<>("employees.by-department", coalescingLingerMs, meterRegistry,
+                EmployeeService::copyAll);
+        nameSearchReads = new RequestCoalescer<>("employees.by-name", coalescingLingerMs, meterRegistry,
+                EmployeeService::copyAll);
+
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        invalidationBus.subscribe(InvalidationBus.EMPLOYEE, this::applyRemoteWrite);
+    }
+
     // Create a new employee
     public Employee createEmployee(Employee employee) {
+        int shard = shardExecutor.shardFor(employee.getDepartment());
         // Check if email already exists
-        if (employeeRepository.existsByEmail(employee.getEmail())) {
+        if (!reserveEmail(employee.getEmail(), shard)) {
             throw new RuntimeException("Employee with email " + employee.getEmail() + " already exists");
         }
-        return employeeRepository.save(employee);
+        employee.setVersion(null);
+        try {
+            return shardExecutor.writeOnShard(shard, () -> {
+                Employee saved = employeeRepository.save(employee);
+                recordWrite(ChangeType.CREATE, saved, saved.getDepartment());
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            releaseEmail(employee.getEmail());
+            if (UniqueConstraints.isViolated(e, Employee.EMAIL_CONSTRAINT)) {
+                // A concurrent create took the email between the check above and the insert
+                throw new RuntimeException("Employee with email " + employee.getEmail() + " already exists", e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            releaseEmail(employee.getEmail());
+            throw e;
+        }
     }
 
     // Get all employees
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+        return coalesce(allEmployeesReads, "all",
+                () -> readOnly(() -> Collections.unmodifiableList(
+                        ShardMerge.concat(shardExecutor.scatter(employeeRepository::findAll)))));
     }
 
     // Get employee by ID
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<Employee> getEmployeeById(Long id) {
-        return employeeRepository.findById(id);
+        return coalesce(employeeByIdReads, id,
+                () -> readOnly(() -> shardExecutor.findFirst(id, () -> employeeRepository.findById(id))));
+    }
+
+    // Get employees by IDs with one IN query per chunk; ids that do not exist are absent from the result
+    @Transactional(readOnly = true)
+    public Map<Long, Employee> getEmployeesByIds(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Employee> employees = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += batchGetChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + batchGetChunkSize, distinctIds.size()));
+            for (List<Employee> found : shardExecutor.scatter(() -> employeeRepository.findAllById(chunk))) {
+                for (Employee employee : found) {
+                    employees.put(employee.getId(), employee);
+                }
+            }
+        }
+        return employees;
     }
 
     // Get employee by email
     @Transactional(readOnly = true)
     public Optional<Employee> getEmployeeByEmail(String email) {
-        return employeeRepository.findByEmail(email);
+        OptionalInt shard = emailIndex != null ? emailIndex.shardOf(email) : OptionalInt.of(0);
+        if (shard.isEmpty()) {
+            return Optional.empty();
+        }
+        return shardExecutor.readOnShard(shard.getAsInt(), () -> employeeRepository.findByEmail(email));
     }
 
     // Get employees by department
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Employee> getEmployeesByDepartment(String department) {
-        return employeeRepository.findByDepartment(department);
+        return coalesce(departmentReads, department,
+                () -> readOnly(() -> Collections.unmodifiableList(shardExecutor.readOnShard(
+                        shardExecutor.shardFor(department), () -> employeeRepository.findByDepartment(department)))));
     }
 
     // Search employees by name
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Employee> searchEmployeesByName(String name) {
-        return employeeRepository.findByNameContainingIgnoreCase(name);
+        return coalesce(nameSearchReads, name.toLowerCase(Locale.ROOT),
+                () -> readOnly(() -> Collections.unmodifiableList(ShardMerge.concat(
+                        shardExecutor.scatter(() -> employeeRepository.findByNameContainingIgnoreCase(name))))));
+    }
+
+    // Query employees by any combination of department, salary range and name prefix
+    @Transactional(readOnly = true)
+    public List<Employee> queryEmployees(String department, BigDecimal minSalary, BigDecimal maxSalary,
+                                         String namePrefix, Sort sort, int limit) {
+        Specification<Employee> specification = querySpecification(department, minSalary, maxSalary, namePrefix);
+        Supplier<List<Employee>> read = () -> employeeRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(limit).all());
+        if (department != null) {
+            return shardExecutor.readOnShard(shardExecutor.shardFor(department), read);
+        }
+        return ShardMerge.mergeSorted(shardExecutor.scatter(read),
+                ShardMerge.comparator(sort, EmployeeService::property), limit);
+    }
+
+    // Sparse fieldset variants: only the requested columns are selected and no entities are loaded
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllEmployeeFields(List<String> fields) {
+        return findProjectedOnAllShards(Specification.allOf(), fields, Sort.by("id"), 0);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getEmployeeFieldsById(Long id, List<String> fields) {
+        return shardExecutor.findFirst(id, () -> employeeRepository.findProjected(
+                EmployeeSpecifications.hasId(id), fields, Sort.unsorted(), 1).stream().findFirst());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEmployeeFieldsByDepartment(String department, List<String> fields) {
+        return shardExecutor.readOnShard(shardExecutor.shardFor(department), () -> employeeRepository.findProjected(
+                EmployeeSpecifications.inDepartment(department), fields, Sort.by("id"), 0));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchEmployeeFieldsByName(String name, List<String> fields) {
+        return findProjectedOnAllShards(EmployeeSpecifications.nameContains(name), fields, Sort.by("id"), 0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> queryEmployeeFields(String department, BigDecimal minSalary, BigDecimal maxSalary,
+                                                         String namePrefix, Sort sort, int limit, List<String> fields) {
+        Specification<Employee> specification = querySpecification(department, minSalary, maxSalary, namePrefix);
+        if (department != null) {
+            return shardExecutor.readOnShard(shardExecutor.shardFor(department),
+                    () -> employeeRepository.findProjected(specification, fields, sort, limit));
+        }
+        return findProjectedOnAllShards(specification, fields, sort, limit);
+    }
+
+    // Shards are merged on the sort columns, so those are selected too and dropped again afterwards
+    private List<Map<String, Object>> findProjectedOnAllShards(Specification<Employee> specification, List<String> fields,
+                                                               Sort sort, int limit) {
+        if (!shardExecutor.isSharded()) {
+            return employeeRepository.findProjected(specification, fields, sort, limit);
+        }
+        List<String> selected = new ArrayList<>(fields);
+        for (Sort.Order order : sort) {
+            if (!selected.contains(order.getProperty())) {
+                selected.add(order.getProperty());
+            }
+        }
+        List<Map<String, Object>> rows = ShardMerge.mergeSorted(
+                shardExecutor.scatter(() -> employeeRepository.findProjected(specification, selected, sort, limit)),
+                ShardMerge.comparator(sort, Map::get), limit);
+        if (selected.size() > fields.size()) {
+            rows.forEach(row -> row.keySet().retainAll(fields));
+        }
+        return rows;
+    }
+
+    private Specification<Employee> querySpecification(String department, BigDecimal minSalary,
+                                                       BigDecimal maxSalary, String namePrefix) {
+        List<Specification<Employee>> filters = new ArrayList<>();
+        if (department != null) {
+            filters.add(EmployeeSpecifications.inDepartment(department));
+        }
+        if (minSalary != null) {
+            filters.add(EmployeeSpecifications.salaryAtLeast(minSalary));
+        }
+        if (maxSalary != null) {
+            filters.add(EmployeeSpecifications.salaryAtMost(maxSalary));
+        }
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            filters.add(EmployeeSpecifications.nameStartsWith(namePrefix));
+        }
+        return Specification.allOf(filters);
+    }
+
+    // Top k employees by salary in every department
+    @Transactional(readOnly = true)
+    public Map<String, List<Employee>> getTopEmployeesBySalaryPerDepartment(int k, Sort.Direction direction) {
+        // A department lives on a single shard, so per-shard rankings are already final
+        return mergeDepartments(shardExecutor.scatter(() -> employeeRepository.findTopBySalaryPerDepartment(k, direction)));
+    }
+
+    // Given percentage of every department by salary, e.g. 10 percent ascending for the bottom decile
+    @Transactional(readOnly = true)
+    public Map<String, List<Employee>> getSalaryPercentilePerDepartment(double percent, Sort.Direction direction) {
+        return mergeDepartments(shardExecutor.scatter(
+                () -> employeeRepository.findSalaryPercentilePerDepartment(percent, direction)));
+    }
+
+    // Get current version of an employee, answered from the version cache when possible
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Long> getEmployeeVersion(Long id) {
+        return employeeVersionCache.getVersion(id);
+    }
+
+    // Tag for the current state of the employee collection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getEmployeeCollectionTag() {
+        return employeeVersionCache.getCollectionTag();
     }
 
     // Update employee
     public Employee updateEmployee(Long id, Employee employeeDetails) {
-        return employeeRepository.findById(id)
+        return updateEmployee(id, employeeDetails, null);
+    }
+
+    // Update employee only if it is still at the expected version (null skips the check)
+    public Employee updateEmployee(Long id, Employee employeeDetails, Long expectedVersion) {
+        int shard = shardExecutor.locate(id, () -> employeeRepository.existsById(id))
+                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        int targetShard = shardExecutor.shardFor(employeeDetails.getDepartment());
+        if (targetShard != shard) {
+            return moveEmployee(id, shard, targetShard, employeeDetails, expectedVersion);
+        }
+        return shardExecutor.writeOnShard(shard, () -> employeeRepository.findById(id)
                 .map(employee -> {
+                    if (expectedVersion != null && !expectedVersion.equals(employee.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+                    }
+
                     // Check if email is being changed and if new email already exists
-                    if (!employee.getEmail().equals(employeeDetails.getEmail()) &&
-                        employeeRepository.existsByEmail(employeeDetails.getEmail())) {
-                        throw new RuntimeException("Employee with email " + employeeDetails.getEmail() + " already exists");
+                    String previousEmail = employee.getEmail();
+                    String newEmail = employeeDetails.getEmail();
+                    if (!previousEmail.equals(newEmail)) {
+                        if (!reserveEmail(newEmail, shard)) {
+                            throw new RuntimeException("Employee with email " + newEmail + " already exists");
+                        }
+                        TransactionCallbacks.afterRollback(() -> releaseEmail(newEmail));
+                        TransactionCallbacks.afterCommit(() -> releaseEmail(previousEmail));
                     }
                     
+                    String previousDepartment = employee.getDepartment();
                     employee.setName(employeeDetails.getName());
                     employee.setEmail(employeeDetails.getEmail());
                     employee.setDepartment(employeeDetails.getDepartment());
                     employee.setSalary(employeeDetails.getSalary());
-                    return employeeRepository.save(employee);
+                    // Flush so the returned entity carries the incremented version
+                    Employee saved;
+                    try {
+                        saved = employeeRepository.saveAndFlush(employee);
+                    } catch (DataIntegrityViolationException e) {
+                        if (UniqueConstraints.isViolated(e, Employee.EMAIL_CONSTRAINT)) {
+                            // Another request moved an employee onto the same email since the check above
+                            throw new RuntimeException("Employee with email " + newEmail + " already exists", e);
+                        }
+                        throw e;
+                    }
+                    recordWrite(ChangeType.UPDATE, saved, previousDepartment);
+                    return saved;
                 })
+                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id)));
+    }
+
+    // The department now maps to another shard: copy the row there under the same id, then remove
+    // the original if it is still unchanged. Scatter reads may briefly see both copies.
+    private Employee moveEmployee(Long id, int fromShard, int toShard, Employee employeeDetails, Long expectedVersion) {
+        Employee current = shardExecutor.readOnShard(fromShard, () -> employeeRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        String previousEmail = current.getEmail();
+        String newEmail = employeeDetails.getEmail();
+        boolean emailChanged = !previousEmail.equals(newEmail);
+        if (emailChanged && !reserveEmail(newEmail, toShard)) {
+            throw new RuntimeException("Employee with email " + newEmail + " already exists");
+        }
+
+        Long version = current.getVersion() + 1;
+        try {
+            shardExecutor.writeOnShard(toShard, () -> employeeRepository.insertWithId(id, employeeDetails.getName(),
+                    newEmail, employeeDetails.getDepartment(), employeeDetails.getSalary(), version,
+                    employeeDetails.getName().toLowerCase(Locale.ROOT)));
+            // Point the claim at the new copy before the original goes, so it always names a shard
+            // that holds the email and is never mistaken for an abandoned one
+            if (!emailChanged) {
+                emailIndex.assign(newEmail, toShard);
+            }
+            int removed = shardExecutor.writeOnShard(fromShard,
+                    () -> employeeRepository.deleteByIdAndVersion(id, current.getVersion()));
+            if (removed == 0) {
+                if (!emailChanged) {
+                    emailIndex.assign(newEmail, fromShard);
+                }
+                shardExecutor.writeOnShard(toShard, () -> employeeRepository.deleteByIdAndVersion(id, version));
+                throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+            }
+        } catch (RuntimeException e) {
+            if (emailChanged) {
+                releaseEmail(newEmail);
+            }
+            throw e;
+        }
+
+        if (emailChanged) {
+            releaseEmail(previousEmail);
+        }
+        Employee moved = shardExecutor.readOnShard(toShard, () -> employeeRepository.findById(id))
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Employee.class, id));
+        recordWrite(ChangeType.UPDATE, moved, current.getDepartment());
+        return moved;
     }
 
     // Delete employee by ID
     public boolean deleteEmployee(Long id) {
-        if (employeeRepository.existsById(id)) {
-            employeeRepository.deleteById(id);
-            return true;
+        OptionalInt shard = shardExecutor.locate(id, () -> employeeRepository.existsById(id));
+        if (shard.isEmpty()) {
+            return false;
         }
-        return false;
+        return shardExecutor.writeOnShard(shard.getAsInt(), () -> {
+            Optional<Employee> employee = employeeRepository.findById(id);
+            if (employee.isPresent()) {
+                String department = employee.get().getDepartment();
+                String email = employee.get().getEmail();
+                employeeRepository.delete(employee.get());
+                TransactionCallbacks.afterCommit(() -> {
+                    releaseEmail(email);
+                    employeeVersionCache.recordDelete(id);
+                    employeeChangeLog.publish(ChangeType.DELETE, id, null);
+                    invalidateReads(id, department, department);
+                    invalidationBus.publish(InvalidationBus.EMPLOYEE, id, null);
+                });
+                return true;
+            }
+            return false;
+        });
     }
 
     // Check if employee exists
     @Transactional(readOnly = true)
     public boolean employeeExists(Long id) {
-        return employeeRepository.existsById(id);
+        return shardExecutor.findFirst(id,
+                () -> employeeRepository.existsById(id) ? Optional.of(Boolean.TRUE) : Optional.<Boolean>empty()).isPresent();
     }
 
     // Get total count of employees
     @Transactional(readOnly = true)
     public long getTotalEmployeeCount() {
-        return employeeRepository.count();
+        long total = 0;
+        for (Long count : shardExecutor.scatter(employeeRepository::count)) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Publish committed writes to the version cache and the change log, and drop shared reads
+    private void recordWrite(ChangeType type, Employee employee, String previousDepartment) {
+        Long id = employee.getId();
+        Long version = employee.getVersion();
+        String department = employee.getDepartment();
+        TransactionCallbacks.afterCommit(() -> {
+            employeeVersionCache.recordWrite(id, version);
+            employeeChangeLog.publish(type, id, version);
+            invalidateReads(id, previousDepartment, department);
+            invalidationBus.publish(InvalidationBus.EMPLOYEE, id, version);
+        });
+    }
+
+    // A write committed on another node; its departments are unknown here, so all department reads are dropped
+    private void applyRemoteWrite(InvalidationMessage message) {
+        Long id = message.getEntityId();
+        if (message.getVersion() != null) {
+            employeeVersionCache.recordWrite(id, message.getVersion());
+        } else {
+            employeeVersionCache.recordDelete(id);
+        }
+        allEmployeesReads.invalidateAll();
+        employeeByIdReads.invalidate(id);
+        departmentReads.invalidateAll();
+        nameSearchReads.invalidateAll();
+    }
+
+    private void invalidateReads(Long id, String previousDepartment, String department) {
+        allEmployeesReads.invalidateAll();
+        employeeByIdReads.invalidate(id);
+        departmentReads.invalidate(previousDepartment);
+        departmentReads.invalidate(department);
+        // Any name search may match the changed employee
+        nameSearchReads.invalidateAll();
+    }
+
+    // Email uniqueness spans shards, so the global index decides when sharded
+    private boolean reserveEmail(String email, int shard) {
+        return emailIndex != null ? emailIndex.reserve(email, shard) : !employeeRepository.existsByEmail(email);
+    }
+
+    private void releaseEmail(String email) {
+        if (emailIndex != null) {
+            emailIndex.release(email);
+        }
+    }
+
+    private static Map<String, List<Employee>> mergeDepartments(List<Map<String, List<Employee>>> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        Map<String, List<Employee>> merged = new TreeMap<>();
+        parts.forEach(merged::putAll);
+        return merged;
+    }
+
+    // Values of the sortable properties, for merging sorted shard results
+    private static Object property(Employee employee, String name) {
+        return switch (name) {
+            case "id" -> employee.getId();
+            case "name" -> employee.getName();
+            case "email" -> employee.getEmail();
+            case "department" -> employee.getDepartment();
+            case "salary" -> employee.getSalary();
+            case "version" -> employee.getVersion();
+            default -> throw new IllegalArgumentException("Unknown employee property: " + name);
+        };
+    }
+
+    private static List<Employee> copyAll(List<Employee> employees) {
+        return employees.stream().map(Employee::copy).toList();
+    }
+
+    // A user inside their read-your-writes window is routed to the primary, but a shared read may
+    // have gone to a lagging replica, so they run their own instead of joining one
+    private <K, V> V coalesce(RequestCoalescer<K, V> reads, K key, Supplier<V> loader) {
+        if (replicaRouting != null && replicaRouting.isCurrentUserSticky()) {
+            return loader.get();
+        }
+        return reads.execute(key, loader);
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
     }
 }
@@ -0,0 +1,87 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.repository.EmployeeRepository;
+import com.example.employeeapi.sharding.ShardExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of employee row versions and a modification counter for the employees table.
+ * Used to answer conditional requests (ETag / If-None-Match) without loading entities.
+ */
+@Component
+public class EmployeeVersionCache {
+
+    // Tombstone for deleted rows; identity ids are never reused, and max() keeps it sticky
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final EmployeeRepository employeeRepository;
+    private final ShardExecutor shardExecutor;
+    private final int maxEntries;
+    private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    // Epoch keeps collection tags unique across restarts, the counter changes on every write
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    public EmployeeVersionCache(EmployeeRepository employeeRepository, ShardExecutor shardExecutor,
+                                @Value("${app.etag.version-cache.max-entries:100000}") int maxEntries) {
+        this.employeeRepository = employeeRepository;
+        this.shardExecutor = shardExecutor;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the current version of an employee, loading only the version column on a miss
+     */
+    public Optional<Long> getVersion(Long id) {
+        Long version = versions.get(id);
+        if (version == null) {
+            Optional<Long> loaded = shardExecutor.findFirst(id, () -> employeeRepository.findVersionById(id));
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            ensureCapacity();
+            version = versions.putIfAbsent(id, loaded.get());
+            if (version == null) {
+                version = loaded.get();
+            }
+        }
+        return version == DELETED ? Optional.empty() : Optional.of(version);
+    }
+
+    /**
+     * Record a committed create or update
+     */
+    public void recordWrite(Long id, Long version) {
+        ensureCapacity();
+        versions.merge(id, version, Math::max);
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Record a committed delete
+     */
+    public void recordDelete(Long id) {
+        versions.put(id, DELETED);
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Tag identifying the current state of the whole employees table
+     */
+    public String getCollectionTag() {
+        return epoch + "-" + modificationCount.get();
+    }
+
+    private void ensureCapacity() {
+        if (versions.size() >= maxEntries) {
+            versions.clear();
+        }
+    }
+}
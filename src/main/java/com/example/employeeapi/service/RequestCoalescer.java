@@ -0,0 +1,115 @@
+package com.example.employeeapi.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight execution of identical reads.
+ * The first caller for a key runs the loader; concurrent callers with the same key wait on the
+ * same future instead of running their own query. A finished result stays shareable for a short
+ * linger window unless a write invalidates the key first.
+ * Every caller, the one that ran the loader included, gets the shared result through the copier,
+ * so one caller changing what it got back cannot leak into another caller's response.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Executor lingerExecutor;
+    private final long lingerMs;
+    private final UnaryOperator<V> copier;
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+
+    public RequestCoalescer(String name, long lingerMs, MeterRegistry meterRegistry) {
+        this(name, lingerMs, meterRegistry, UnaryOperator.identity());
+    }
+
+    /**
+     * @param copier turns the shared result into one caller's own; use identity only for immutable values
+     */
+    public RequestCoalescer(String name, long lingerMs, MeterRegistry meterRegistry, UnaryOperator<V> copier) {
+        this.lingerMs = lingerMs;
+        this.copier = copier;
+        this.lingerExecutor = CompletableFuture.delayedExecutor(lingerMs, TimeUnit.MILLISECONDS);
+
+        FunctionCounter.builder("coalescer.calls", executed, AtomicLong::get)
+                .tag("name", name).tag("outcome", "executed")
+                .description("Reads that ran their own query")
+                .register(meterRegistry);
+        FunctionCounter.builder("coalescer.calls", joined, AtomicLong::get)
+                .tag("name", name).tag("outcome", "joined")
+                .description("Reads that shared another caller's query")
+                .register(meterRegistry);
+        Gauge.builder("coalescer.ratio", this, RequestCoalescer::getCoalescingRatio)
+                .tag("name", name)
+                .description("Fraction of reads answered by a shared query")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            joined.incrementAndGet();
+            return copier.apply(await(existing));
+        }
+
+        executed.incrementAndGet();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        future.complete(value);
+
+        if (lingerMs > 0) {
+            lingerExecutor.execute(() -> inFlight.remove(key, future));
+        } else {
+            inFlight.remove(key, future);
+        }
+        return copier.apply(value);
+    }
+
+    /**
+     * Stop sharing the result for a key; the next caller runs a fresh query
+     */
+    public void invalidate(K key) {
+        inFlight.remove(key);
+    }
+
+    public void invalidateAll() {
+        inFlight.clear();
+    }
+
+    public double getCoalescingRatio() {
+        long joinedCount = joined.get();
+        long total = executed.get() + joinedCount;
+        return total == 0 ? 0.0 : (double) joinedCount / total;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.enums.Role;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Role membership held as compressed bitmaps of user ids, plus a bitmap of active users.
+ * Role listings, multi-role intersections and counts become bitmap operations instead of
+ * DISTINCT joins over user_roles. Each change publishes a new immutable set of bitmaps, so
+ * readers never lock and never see a half-applied update.
+ */
+@Component
+public class RoleMembershipIndex implements UserDirectoryListener {
+
+    private volatile Bitmaps bitmaps;
+
+    @Override
+    public synchronized void onDirectoryLoaded(Collection<UserSnapshot> users) {
+        Map<Role, Roaring64NavigableMap> byRole = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            byRole.put(role, newBitmap());
+        }
+        Roaring64NavigableMap active = newBitmap();
+        for (UserSnapshot user : users) {
+            for (Role role : user.getRoles()) {
+                byRole.get(role).addLong(user.getId());
+            }
+            if (user.isActive()) {
+                active.addLong(user.getId());
+            }
+        }
+        bitmaps = new Bitmaps(byRole, active);
+    }
+
+    // Writers are serialized; only the bitmaps a change touches are copied. Membership is set from
+    // after and what the bitmaps already hold, so a stale before can never leave a role behind.
+    @Override
+    public synchronized void onUserChanged(UserSnapshot before, UserSnapshot after) {
+        Bitmaps current = bitmaps;
+        if (current == null) {
+            return;
+        }
+        long id = after != null ? after.getId() : before.getId();
+        Map<Role, Roaring64NavigableMap> byRole = new EnumMap<>(current.byRole);
+        for (Role role : Role.values()) {
+            byRole.put(role, withMembership(byRole.get(role), id, after != null && after.getRoles().contains(role)));
+        }
+        Roaring64NavigableMap active = withMembership(current.active, id, after != null && after.isActive());
+        bitmaps = new Bitmaps(byRole, active);
+    }
+
+    public boolean isLoaded() {
+        return bitmaps != null;
+    }
+
+    /**
+     * Ids of active users holding all ({@code requireAll}) or any of the roles, in ascending order
+     */
+    public long[] activeUserIds(Collection<Role> roles, boolean requireAll) {
+        return match(roles, requireAll).toArray();
+    }
+
+    public long countActiveUsers(Collection<Role> roles, boolean requireAll) {
+        return match(roles, requireAll).getLongCardinality();
+    }
+
+    private Roaring64NavigableMap match(Collection<Role> roles, boolean requireAll) {
+        Bitmaps current = bitmaps;
+        if (current == null) {
+            throw new IllegalStateException("Role membership index is not loaded yet");
+        }
+        Roaring64NavigableMap result = null;
+        for (Role role : roles) {
+            Roaring64NavigableMap members = current.byRole.get(role);
+            if (result == null) {
+                result = copy(members);
+            } else if (requireAll) {
+                result.and(members);
+            } else {
+                result.or(members);
+            }
+        }
+        if (result == null) {
+            return newBitmap();
+        }
+        result.and(current.active);
+        return result;
+    }
+
+    // The bitmap itself when it already agrees, otherwise a copy with the id added or removed
+    private static Roaring64NavigableMap withMembership(Roaring64NavigableMap bitmap, long id, boolean member) {
+        if (bitmap.contains(id) == member) {
+            return bitmap;
+        }
+        Roaring64NavigableMap copy = copy(bitmap);
+        if (member) {
+            copy.addLong(id);
+        } else {
+            copy.removeLong(id);
+        }
+        return copy;
+    }
+
+    // Cardinality caching is off: it is filled in lazily on read, which would mutate bitmaps shared between readers
+    private static Roaring64NavigableMap newBitmap() {
+        return new Roaring64NavigableMap(false, false);
+    }
+
+    private static Roaring64NavigableMap copy(Roaring64NavigableMap bitmap) {
+        Roaring64NavigableMap copy = newBitmap();
+        copy.or(bitmap);
+        return copy;
+    }
+
+    private static final class Bitmaps {
+
+        private final Map<Role, Roaring64NavigableMap> byRole;
+        private final Roaring64NavigableMap active;
+
+        private Bitmaps(Map<Role, Roaring64NavigableMap> byRole, Roaring64NavigableMap active) {
+            this.byRole = byRole;
+            this.active = active;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.employeeapi.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells which unique constraint a write ran into, so only the expected duplicate is reported as
+ * one and every other integrity violation still surfaces as it is
+ */
+public final class UniqueConstraints {
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Whether the exception was caused by the named constraint; databases may report it qualified
+     * with the schema or suffixed with its index, so the name only has to appear in what they report
+     */
+    public static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+        String name = constraintName.toLowerCase(Locale.ROOT);
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(name);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.employeeapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Prefix lookup over usernames and full names (each word of the full name is a separate key).
+ * Keys live in one sorted array searched with binary search; every change publishes a new array
+ * built by a linear merge, so readers never lock.
+ */
+@Component
+public class UserAutocompleteIndex implements UserDirectoryListener {
+
+    private volatile Entries entries;
+
+    @Override
+    public synchronized void onDirectoryLoaded(Collection<UserSnapshot> users) {
+        List<Entry> all = new ArrayList<>();
+        for (UserSnapshot user : users) {
+            all.addAll(entriesFor(user));
+        }
+        all.sort(null);
+        entries = Entries.of(all);
+    }
+
+    @Override
+    public synchronized void onUserChanged(UserSnapshot before, UserSnapshot after) {
+        Entries current = entries;
+        if (current == null) {
+            return;
+        }
+        Long removedId = before != null ? before.getId() : null;
+        List<Entry> additions = after != null ? entriesFor(after) : new ArrayList<>();
+        additions.sort(null);
+        entries = current.replace(removedId, additions);
+    }
+
+    public boolean isLoaded() {
+        return entries != null;
+    }
+
+    /**
+     * Up to {@code limit} distinct users with a username or name word starting with the prefix,
+     * in alphabetical order of the matching key
+     */
+    public List<UserSnapshot> complete(String prefix, int limit) {
+        Entries current = entries;
+        if (current == null) {
+            throw new IllegalStateException("Autocomplete index is not loaded yet");
+        }
+        String key = normalize(prefix);
+        List<UserSnapshot> matches = new ArrayList<>(Math.min(limit, 16));
+        Set<Long> seen = new HashSet<>();
+        for (int i = current.lowerBound(key); i < current.keys.length && matches.size() < limit; i++) {
+            if (!current.keys[i].startsWith(key)) {
+                break;
+            }
+            if (seen.add(current.users[i].getId())) {
+                matches.add(current.users[i]);
+            }
+        }
+        return matches;
+    }
+
+    private static List<Entry> entriesFor(UserSnapshot user) {
+        Set<String> keys = new HashSet<>();
+        if (user.getUsername() != null) {
+            keys.add(normalize(user.getUsername()));
+        }
+        if (user.getFullName() != null) {
+            String fullName = normalize(user.getFullName());
+            keys.add(fullName);
+            for (String word : fullName.split("\\s+")) {
+                if (!word.isEmpty()) {
+                    keys.add(word);
+                }
+            }
+        }
+        List<Entry> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(new Entry(key, user));
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final String key;
+        private final UserSnapshot user;
+
+        private Entry(String key, UserSnapshot user) {
+            this.key = key;
+            this.user = user;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(user.getId(), other.user.getId());
+        }
+    }
+
+    // Parallel arrays keep the index compact and cache-friendly to scan
+    private static final class Entries {
+
+        private final String[] keys;
+        private final UserSnapshot[] users;
+
+        private Entries(String[] keys, UserSnapshot[] users) {
+            this.keys = keys;
+            this.users = users;
+        }
+
+        private static Entries of(List<Entry> sorted) {
+            String[] keys = new String[sorted.size()];
+            UserSnapshot[] users = new UserSnapshot[sorted.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = sorted.get(i).key;
+                users[i] = sorted.get(i).user;
+            }
+            return new Entries(keys, users);
+        }
+
+        // First index whose key is >= the given key
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Drop the entries of one user and merge in sorted additions in a single pass
+        private Entries replace(Long removedId, List<Entry> additions) {
+            List<Entry> merged = new ArrayList<>(keys.length + additions.size());
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (removedId != null && removedId.equals(users[i].getId())) {
+                    continue;
+                }
+                Entry existing = new Entry(keys[i], users[i]);
+                while (next < additions.size() && additions.get(next).compareTo(existing) < 0) {
+                    merged.add(additions.get(next++));
+                }
+                merged.add(existing);
+            }
+            while (next < additions.size()) {
+                merged.add(additions.get(next++));
+            }
+            return of(merged);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.employeeapi.service;
+
+import java.util.Collection;
+
+/**
+ * Receives the user directory once at startup and every committed change after that.
+ * Implementations keep derived in-memory views (counters, indexes) in sync without querying
+ * the database on each read. Callbacks must be fast and must not throw.
+ */
+public interface UserDirectoryListener {
+
+    /**
+     * Replace all state with the given users; called once the application is ready
+     */
+    void onDirectoryLoaded(Collection<UserSnapshot> users);
+
+    /**
+     * A user changed; {@code before} is null for a new user and {@code after} is null for a deleted one
+     */
+    void onUserChanged(UserSnapshot before, UserSnapshot after);
+}
@@ -2,16 +2,32 @@ package com.example.employeeapi.service;
 
 import com.example.employeeapi.entity.User;
 import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.invalidation.InvalidationBus;
+import com.example.employeeapi.invalidation.InvalidationMessage;
 import com.example.employeeapi.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
@@ -22,6 +38,70 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DirectoryStatistics directoryStatistics;
+
+    @Autowired
+    private RoleMembershipIndex roleMembershipIndex;
+
+    @Autowired
+    private UserAutocompleteIndex userAutocompleteIndex;
+
+    @Value("${app.users.lookup-chunk-size:500}")
+    private int lookupChunkSize;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private List<UserDirectoryListener> directoryListeners = Collections.emptyList();
+
+    // Tombstone version for deleted users; identity ids are never reused
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Last known state of every user, so changes made on other nodes reach listeners as before/after pairs
+    private final Map<Long, UserSnapshot> directory = new ConcurrentHashMap<>();
+
+    // Row version behind each directory entry; a change only applies if it is newer
+    private final Map<Long, Long> directoryVersions = new ConcurrentHashMap<>();
+
+    // Reads committed state outside the caller's persistence context, which may still hold the entity it wrote
+    private TransactionTemplate freshRead;
+
+    @PostConstruct
+    void subscribeToRemoteChanges() {
+        // Not read-only, so the read goes to the primary rather than a replica that may lag behind the write
+        freshRead = new TransactionTemplate(transactionManager);
+        freshRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        invalidationBus.subscribe(InvalidationBus.USER, message -> refresh(message.getEntityId()));
+    }
+
+    /**
+     * Seed the in-memory directory views once startup data is in place
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadDirectory() {
+        List<UserSnapshot> users;
+        synchronized (directory) {
+            // Read under the lock so a concurrent refresh cannot be overwritten with older state
+            List<User> entities = userRepository.findAll();
+            users = entities.stream().map(UserSnapshot::of).toList();
+            directory.clear();
+            directoryVersions.clear();
+            users.forEach(user -> directory.put(user.getId(), user));
+            entities.forEach(user -> directoryVersions.put(user.getId(), user.getVersion()));
+            for (UserDirectoryListener listener : directoryListeners) {
+                listener.onDirectoryLoaded(users);
+            }
+        }
+        logger.info("Loaded {} users into {} directory listeners", users.size(), directoryListeners.size());
+    }
+
     /**
      * Create a new user
      */
@@ -37,7 +117,21 @@ public class UserService {
         }
 
         logger.info("Creating new user: {}", user.getUsername());
-        return userRepository.save(user);
+        User saved;
+        try {
+            // Flush so a concurrent create of the same username or email fails here, not at commit
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, User.USERNAME_CONSTRAINT)) {
+                throw new RuntimeException("User with username '" + user.getUsername() + "' already exists", e);
+            }
+            if (UniqueConstraints.isViolated(e, User.EMAIL_CONSTRAINT)) {
+                throw new RuntimeException("User with email '" + user.getEmail() + "' already exists", e);
+            }
+            throw e;
+        }
+        publishChange(saved, false);
+        return saved;
     }
 
     /**
@@ -52,13 +146,16 @@ public class UserService {
             // In a real application, you would use password hashing (BCrypt, etc.)
             // For demo purposes, we're using plain text comparison
             if (password.equals(user.getPassword())) {
-                logger.info("User authenticated successfully: {}", username);
+                // AuthController logs the successful login
+                logger.debug("User authenticated successfully: {}", username);
                 return Optional.of(user);
             } else {
-                logger.warn("Invalid password for user: {}", username);
+                logger.atWarn().addKeyValue("user", username).addKeyValue("reason", "invalid-password")
+                        .log("Authentication rejected");
             }
         } else {
-            logger.warn("User not found or inactive: {}", username);
+            logger.atWarn().addKeyValue("user", username).addKeyValue("reason", "unknown-or-inactive")
+                    .log("Authentication rejected");
         }
         
         return Optional.empty();
@@ -109,9 +206,37 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<User> getUsersByRole(Role role) {
+        if (roleMembershipIndex.isLoaded()) {
+            return findUsersByIds(roleMembershipIndex.activeUserIds(Set.of(role), false));
+        }
         return userRepository.findByRolesContaining(role);
     }
 
+    /**
+     * Get active users holding all (requireAll) or any of the roles, ordered by id
+     */
+    @Transactional(readOnly = true)
+    public List<User> getUsersByRoles(Set<Role> roles, boolean requireAll) {
+        if (roleMembershipIndex.isLoaded()) {
+            return findUsersByIds(roleMembershipIndex.activeUserIds(roles, requireAll));
+        }
+        return userRepository.findByActiveTrue().stream()
+                .filter(user -> requireAll ? user.getRoles().containsAll(roles) : roles.stream().anyMatch(user.getRoles()::contains))
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
+    }
+
+    /**
+     * Count active users holding all (requireAll) or any of the roles
+     */
+    @Transactional(readOnly = true)
+    public long getUserCountByRoles(Set<Role> roles, boolean requireAll) {
+        if (roleMembershipIndex.isLoaded()) {
+            return roleMembershipIndex.countActiveUsers(roles, requireAll);
+        }
+        return getUsersByRoles(roles, requireAll).size();
+    }
+
     /**
      * Update user
      */
@@ -137,7 +262,9 @@ public class UserService {
                     user.setActive(userDetails.isActive());
 
                     logger.info("Updated user: {}", user.getUsername());
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    publishChange(saved, false);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
@@ -150,7 +277,9 @@ public class UserService {
                 .map(user -> {
                     user.setRoles(roles);
                     logger.info("Updated roles for user {}: {}", user.getUsername(), roles);
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    publishChange(saved, false);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
@@ -162,7 +291,7 @@ public class UserService {
         return userRepository.findById(id)
                 .map(user -> {
                     user.setActive(false);
-                    userRepository.save(user);
+                    publishChange(userRepository.save(user), false);
                     logger.info("Deactivated user: {}", user.getUsername());
                     return true;
                 })
@@ -176,7 +305,7 @@ public class UserService {
         return userRepository.findById(id)
                 .map(user -> {
                     user.setActive(true);
-                    userRepository.save(user);
+                    publishChange(userRepository.save(user), false);
                     logger.info("Activated user: {}", user.getUsername());
                     return true;
                 })
@@ -187,12 +316,14 @@ public class UserService {
      * Delete user permanently
      */
     public boolean deleteUser(Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            logger.info("Permanently deleted user with id: {}", id);
-            return true;
-        }
-        return false;
+        return userRepository.findById(id)
+                .map(user -> {
+                    userRepository.delete(user);
+                    publishChange(user, true);
+                    logger.info("Permanently deleted user with id: {}", id);
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
@@ -208,6 +339,9 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public long getTotalUserCount() {
+        if (directoryStatistics.isLoaded()) {
+            return directoryStatistics.getTotalUsers();
+        }
         return userRepository.count();
     }
 
@@ -216,7 +350,21 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public long getActiveUserCount() {
-        return userRepository.findByActiveTrue().size();
+        if (directoryStatistics.isLoaded()) {
+            return directoryStatistics.getActiveUsers();
+        }
+        return userRepository.countByActiveTrue();
+    }
+
+    /**
+     * Get count of active users with a role
+     */
+    @Transactional(readOnly = true)
+    public long getUserCountByRole(Role role) {
+        if (directoryStatistics.isLoaded()) {
+            return directoryStatistics.getActiveUsersWithRole(role);
+        }
+        return userRepository.countActiveByRole(role);
     }
 
     /**
@@ -226,4 +374,95 @@ public class UserService {
     public List<User> searchUsersByUsername(String username) {
         return userRepository.findByUsernameContainingIgnoreCase(username);
     }
+
+    /**
+     * Autocomplete users whose username or any word of their full name starts with the prefix
+     */
+    @Transactional(readOnly = true)
+    public List<UserSnapshot> autocompleteUsers(String prefix, int limit) {
+        if (userAutocompleteIndex.isLoaded()) {
+            return userAutocompleteIndex.complete(prefix, limit);
+        }
+        // Same case folding as the index, independent of the default locale
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        return userRepository.findByUsernameContainingIgnoreCase(prefix.trim()).stream()
+                .filter(user -> user.getUsername().toLowerCase(Locale.ROOT).startsWith(key))
+                .sorted(Comparator.comparing(User::getUsername))
+                .limit(limit)
+                .map(UserSnapshot::of)
+                .toList();
+    }
+
+    /**
+     * Load users by primary key in chunks, keeping the (ascending) id order
+     */
+    private List<User> findUsersByIds(long[] ids) {
+        List<User> users = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += lookupChunkSize) {
+            List<Long> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + lookupChunkSize, ids.length); i++) {
+                chunk.add(ids[i]);
+            }
+            users.addAll(userRepository.findAllById(chunk));
+        }
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+
+    /**
+     * Notify directory listeners once the current transaction commits
+     * The entity holds the committed state and version by then, so nothing is read back: the
+     * writer's connection is still bound while after-commit callbacks run.
+     */
+    private void publishChange(User user, boolean deleted) {
+        TransactionCallbacks.afterCommit(() -> {
+            apply(user.getId(), deleted ? null : UserSnapshot.of(user), deleted ? DELETED : user.getVersion());
+            invalidationBus.publish(InvalidationBus.USER, user.getId(), deleted ? null : user.getVersion());
+        });
+    }
+
+    /**
+     * Reload a user changed on another node; the read happens before taking the directory lock
+     */
+    private void refresh(Long id) {
+        User user = freshRead.execute(status -> userRepository.findById(id).orElse(null));
+        if (user == null) {
+            apply(id, null, DELETED);
+        } else {
+            apply(id, UserSnapshot.of(user), user.getVersion());
+        }
+    }
+
+    /**
+     * Replay a change from the last known state to the listeners, unless a newer one already
+     * applied: after-commit callbacks and remote refreshes do not arrive in commit order.
+     */
+    private void apply(Long id, UserSnapshot after, long version) {
+        synchronized (directory) {
+            Long known = directoryVersions.get(id);
+            if (known != null && known >= version) {
+                return;
+            }
+            directoryVersions.put(id, version);
+            UserSnapshot before = directory.get(id);
+            if (before != null || after != null) {
+                notifyListeners(before, after);
+            }
+        }
+    }
+
+    private void notifyListeners(UserSnapshot before, UserSnapshot after) {
+        if (after != null) {
+            directory.put(after.getId(), after);
+        } else {
+            directory.remove(before.getId());
+        }
+        for (UserDirectoryListener listener : directoryListeners) {
+            try {
+                listener.onUserChanged(before, after);
+            } catch (RuntimeException e) {
+                logger.error("Directory listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.User;
+import com.example.employeeapi.enums.Role;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable copy of the directory-relevant fields of a {@link User}, safe to hand to listeners
+ * after the transaction and persistence context are gone
+ */
+public final class UserSnapshot {
+
+    private final Long id;
+    private final String username;
+    private final String fullName;
+    private final boolean active;
+    private final Set<Role> roles;
+
+    public UserSnapshot(Long id, String username, String fullName, boolean active, Set<Role> roles) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.active = active;
+        this.roles = roles == null || roles.isEmpty()
+                ? Collections.unmodifiableSet(EnumSet.noneOf(Role.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(roles));
+    }
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getFullName(), user.isActive(), user.getRoles());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Set<Role> getRoles() {
+        return roles;
+    }
+}
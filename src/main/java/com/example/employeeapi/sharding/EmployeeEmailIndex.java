@@ -0,0 +1,111 @@
+package com.example.employeeapi.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Global email -> shard table on shard 0. Email uniqueness spans shards, so it is enforced by the
+ * primary key here instead of the per-shard unique constraint; each statement commits on its own.
+ * A claim is therefore written before the employee reaches its shard, and released only after the
+ * employee is gone. A crash in between leaves a claim nobody holds; once it is older than the
+ * reservation timeout and its shard has no employee with the email, the next reservation takes it over.
+ */
+public class EmployeeEmailIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeEmailIndex.class);
+
+    private final ShardRoutingDataSource shards;
+    private final JdbcTemplate jdbcTemplate;
+    private final long reservationTimeoutMs;
+
+    public EmployeeEmailIndex(ShardRoutingDataSource shards, long reservationTimeoutMs) {
+        this.shards = shards;
+        this.jdbcTemplate = new JdbcTemplate(shards.getShard(0));
+        this.reservationTimeoutMs = reservationTimeoutMs;
+    }
+
+    void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS employee_email_index ("
+                + "email VARCHAR(255) NOT NULL PRIMARY KEY, shard INT NOT NULL)");
+        // When the claim was last written, epoch ms; 0 for claims from before the column existed
+        jdbcTemplate.execute("ALTER TABLE employee_email_index ADD COLUMN IF NOT EXISTS claimed_at BIGINT DEFAULT 0 NOT NULL");
+    }
+
+    /**
+     * Claim the email for an employee on the shard; false if another employee already has it
+     */
+    public boolean reserve(String email, int shard) {
+        long now = System.currentTimeMillis();
+        if (insert(email, shard, now)) {
+            return true;
+        }
+        return reclaim(email, shard, now);
+    }
+
+    /**
+     * Add an email found on a shard at startup; false if it is already indexed
+     */
+    boolean index(String email, int shard) {
+        return insert(email, shard, System.currentTimeMillis());
+    }
+
+    public void release(String email) {
+        jdbcTemplate.update("DELETE FROM employee_email_index WHERE email = ?", email);
+    }
+
+    public void assign(String email, int shard) {
+        jdbcTemplate.update("UPDATE employee_email_index SET shard = ?, claimed_at = ? WHERE email = ?",
+                shard, System.currentTimeMillis(), email);
+    }
+
+    public OptionalInt shardOf(String email) {
+        List<Integer> shards = jdbcTemplate.queryForList(
+                "SELECT shard FROM employee_email_index WHERE email = ?", Integer.class, email);
+        return shards.isEmpty() ? OptionalInt.empty() : OptionalInt.of(shards.get(0));
+    }
+
+    private boolean insert(String email, int shard, long claimedAt) {
+        try {
+            jdbcTemplate.update("INSERT INTO employee_email_index (email, shard, claimed_at) VALUES (?, ?, ?)",
+                    email, shard, claimedAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Takes over a claim left behind by a crash. Young claims may belong to a create that has not
+    // committed yet, so they are never taken; the conditional update lets only one caller win.
+    private boolean reclaim(String email, int shard, long now) {
+        List<Map<String, Object>> claims = jdbcTemplate.queryForList(
+                "SELECT shard, claimed_at FROM employee_email_index WHERE email = ?", email);
+        if (claims.isEmpty()) {
+            // Released since the insert failed
+            return insert(email, shard, now);
+        }
+        int owner = ((Number) claims.get(0).get("shard")).intValue();
+        long claimedAt = ((Number) claims.get(0).get("claimed_at")).longValue();
+        if (now - claimedAt < reservationTimeoutMs
+                || owner < shards.getShardCount() && shardHasEmail(owner, email)) {
+            return false;
+        }
+        boolean taken = jdbcTemplate.update("UPDATE employee_email_index SET shard = ?, claimed_at = ? "
+                + "WHERE email = ? AND shard = ? AND claimed_at = ?", shard, now, email, owner, claimedAt) == 1;
+        if (taken) {
+            logger.warn("Took over abandoned email claim for {} from shard {}", email, owner);
+        }
+        return taken;
+    }
+
+    private boolean shardHasEmail(int shard, String email) {
+        Long count = new JdbcTemplate(shards.getShard(shard)).queryForObject(
+                "SELECT COUNT(*) FROM employees WHERE email = ?", Long.class, email);
+        return count != null && count > 0;
+    }
+}
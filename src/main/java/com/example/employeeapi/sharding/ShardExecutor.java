@@ -0,0 +1,220 @@
+package com.example.employeeapi.sharding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository calls against employee shards.
+ * Every shard call gets its own transaction with the shard selected before the first statement:
+ * single-shard work runs on the calling thread in a new transaction, scatter reads run on worker
+ * threads. The caller's own transaction therefore only ever touches shard 0, which also holds the
+ * unsharded tables. Without sharding every call runs inline in the caller's transaction, exactly
+ * as if this class were not there.
+ */
+@Component
+public class ShardExecutor {
+
+    // Absent unless app.sharding.enabled
+    @Autowired(required = false)
+    private ShardRouter router;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sharding.scatter-threads:16}")
+    private int scatterThreads;
+
+    private ExecutorService workers;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+    private Timer scatterTimer;
+
+    @PostConstruct
+    void init() {
+        if (router == null) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(scatterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        scatterTimer = Timer.builder("sharding.scatter")
+                .description("Time to query all shards and collect the results")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    public boolean isSharded() {
+        return router != null;
+    }
+
+    public int getShardCount() {
+        return router != null ? router.getShardCount() : 1;
+    }
+
+    public int shardFor(String department) {
+        return router != null ? router.shardFor(department) : 0;
+    }
+
+    /**
+     * Run a read on one shard in its own read-only transaction
+     */
+    public <T> T readOnShard(int shard, Supplier<T> read) {
+        if (router == null) {
+            return read.get();
+        }
+        return onShard(shard, () -> readOnlyTransaction.execute(status -> read.get()));
+    }
+
+    /**
+     * Run a write on one shard in its own transaction; after-commit callbacks registered by the
+     * action fire when that transaction commits
+     */
+    public <T> T writeOnShard(int shard, Supplier<T> write) {
+        if (router == null) {
+            return write.get();
+        }
+        return onShard(shard, () -> writeTransaction.execute(status -> write.get()));
+    }
+
+    /**
+     * Run the read on every shard in parallel and return the per-shard results in shard order
+     */
+    public <T> List<T> scatter(Supplier<T> read) {
+        if (router == null) {
+            return List.of(read.get());
+        }
+        List<Integer> shards = new ArrayList<>(router.getShardCount());
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(shard);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return readOn(shards, read);
+        } finally {
+            sample.stop(scatterTimer);
+        }
+    }
+
+    /**
+     * Look for a row on its home shard first and on the other shards only if it is not there;
+     * rows stay where they are when their department moves to another shard
+     */
+    public <T> Optional<T> findFirst(long id, Supplier<Optional<T>> read) {
+        if (router == null) {
+            return read.get();
+        }
+        int home = router.homeShardOf(id);
+        Optional<T> found = readOnShard(home, read);
+        if (found.isPresent()) {
+            return found;
+        }
+        for (Optional<T> result : readOn(otherShards(home), read)) {
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Shard that currently holds the row, or empty if none does; always shard 0 without sharding
+     */
+    public OptionalInt locate(long id, BooleanSupplier exists) {
+        if (router == null) {
+            return OptionalInt.of(0);
+        }
+        int home = router.homeShardOf(id);
+        if (readOnShard(home, exists::getAsBoolean)) {
+            return OptionalInt.of(home);
+        }
+        List<Integer> others = otherShards(home);
+        List<Boolean> results = readOn(others, exists::getAsBoolean);
+        for (int i = 0; i < others.size(); i++) {
+            if (results.get(i)) {
+                return OptionalInt.of(others.get(i));
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private List<Integer> otherShards(int excluded) {
+        List<Integer> shards = new ArrayList<>(router.getShardCount() - 1);
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            if (shard != excluded) {
+                shards.add(shard);
+            }
+        }
+        return shards;
+    }
+
+    private <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private <T> List<T> readOn(List<Integer> shards, Supplier<T> read) {
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (Integer shard : shards) {
+            futures.add(workers.submit(() -> readOnShard(shard, read)));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+}
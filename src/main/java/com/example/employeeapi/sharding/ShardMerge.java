@@ -0,0 +1,94 @@
+package com.example.employeeapi.sharding;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BiFunction;
+
+/**
+ * Combines per-shard results
+ */
+public final class ShardMerge {
+
+    private ShardMerge() {
+    }
+
+    /**
+     * Concatenate per-shard results in shard order; for reads whose order was never defined
+     */
+    public static <T> List<T> concat(List<? extends List<T>> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        int size = 0;
+        for (List<T> part : parts) {
+            size += part.size();
+        }
+        List<T> merged = new ArrayList<>(size);
+        parts.forEach(merged::addAll);
+        return merged;
+    }
+
+    /**
+     * K-way merge of lists that are each sorted by the comparator, stopping after {@code limit}
+     * elements (0 for no limit); only one head element per shard is compared at a time
+     */
+    public static <T> List<T> mergeSorted(List<? extends List<T>> parts, Comparator<? super T> order, int limit) {
+        if (parts.size() == 1) {
+            List<T> only = parts.get(0);
+            return limit > 0 && only.size() > limit ? only.subList(0, limit) : only;
+        }
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(parts.size(),
+                (a, b) -> order.compare(a.current(), b.current()));
+        for (List<T> part : parts) {
+            if (!part.isEmpty()) {
+                heads.add(new Cursor<>(part));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && (limit <= 0 || merged.size() < limit)) {
+            Cursor<T> head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Comparator equivalent to the ORDER BY each shard applied for the given sort
+     */
+    public static <T> Comparator<T> comparator(Sort sort, BiFunction<T, String, Object> property) {
+        Comparator<T> result = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            String name = order.getProperty();
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Comparator<T> byProperty = Comparator.comparing(
+                    row -> (Comparable) property.apply(row, name), Comparator.nullsFirst(Comparator.naturalOrder()));
+            result = result.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return result;
+    }
+
+    private static final class Cursor<T> {
+
+        private final List<T> items;
+        private int position;
+
+        private Cursor(List<T> items) {
+            this.items = items;
+        }
+
+        private T current() {
+            return items.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < items.size();
+        }
+    }
+}
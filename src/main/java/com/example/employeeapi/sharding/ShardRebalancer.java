@@ -0,0 +1,75 @@
+package com.example.employeeapi.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves employees that are not on the shard their department maps to, so department reads, which
+ * query that shard only, find them again. Rows end up misplaced when sharding is enabled over an
+ * existing database, where everything starts out on shard 0, or when the directory changes.
+ * Each batch is copied under its ids and versions, pointed to in the email index, then removed from
+ * the old shard; a run that stops part way leaves at most duplicates the next run cleans up.
+ */
+public class ShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String COLUMNS = "id, name, name_lower, email, department, salary, version";
+
+    private final ShardRoutingDataSource shards;
+    private final ShardRouter router;
+    private final EmployeeEmailIndex emailIndex;
+    private final int batchSize;
+
+    public ShardRebalancer(ShardRoutingDataSource shards, ShardRouter router, EmployeeEmailIndex emailIndex,
+                           int batchSize) {
+        this.shards = shards;
+        this.router = router;
+        this.emailIndex = emailIndex;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Move every misplaced employee to its department's shard; returns how many were moved
+     */
+    public long rebalance() {
+        long moved = 0;
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            JdbcTemplate source = new JdbcTemplate(shards.getShard(shard));
+            for (String department : source.queryForList("SELECT DISTINCT department FROM employees", String.class)) {
+                int target = router.shardFor(department);
+                if (target != shard) {
+                    long count = move(source, new JdbcTemplate(shards.getShard(target)), target, department);
+                    logger.info("Moved {} {} employees from shard {} to shard {}", count, department, shard, target);
+                    moved += count;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private long move(JdbcTemplate source, JdbcTemplate target, int targetShard, String department) {
+        long moved = 0;
+        while (true) {
+            List<Map<String, Object>> rows = source.queryForList("SELECT " + COLUMNS
+                    + " FROM employees WHERE department = ? ORDER BY id LIMIT ?", department, batchSize);
+            if (rows.isEmpty()) {
+                return moved;
+            }
+            // MERGE so a copy left by an interrupted run is overwritten instead of failing the key
+            target.batchUpdate("MERGE INTO employees (" + COLUMNS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    rows.stream().map(row -> new Object[]{row.get("id"), row.get("name"), row.get("name_lower"),
+                            row.get("email"), row.get("department"), row.get("salary"), row.get("version")}).toList());
+            for (Map<String, Object> row : rows) {
+                emailIndex.assign((String) row.get("email"), targetShard);
+            }
+            source.batchUpdate("DELETE FROM employees WHERE id = ?",
+                    rows.stream().map(row -> new Object[]{row.get("id")}).toList());
+            moved += rows.size();
+        }
+    }
+}
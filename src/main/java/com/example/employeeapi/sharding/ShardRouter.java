@@ -0,0 +1,59 @@
+package com.example.employeeapi.sharding;
+
+import java.util.Map;
+
+/**
+ * Maps departments to shards: explicit directory entries first, otherwise a stable hash.
+ * All employees of a department live on one shard, so per-department reads touch a single shard.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+    private final Map<String, Integer> directory;
+    private final long idStride;
+
+    public ShardRouter(int shardCount, Map<String, Integer> directory, long idStride) {
+        for (Map.Entry<String, Integer> entry : directory.entrySet()) {
+            if (entry.getValue() < 0 || entry.getValue() >= shardCount) {
+                throw new IllegalArgumentException("Department '" + entry.getKey() + "' is mapped to unknown shard " + entry.getValue());
+            }
+        }
+        this.shardCount = shardCount;
+        this.directory = Map.copyOf(directory);
+        this.idStride = idStride;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public long getIdStride() {
+        return idStride;
+    }
+
+    public int shardFor(String department) {
+        Integer pinned = directory.get(department);
+        if (pinned != null) {
+            return pinned;
+        }
+        return Math.floorMod(mix(department.hashCode()), shardCount);
+    }
+
+    /**
+     * Shard whose id range contains the id; employees that changed department may have moved elsewhere
+     */
+    public int homeShardOf(long id) {
+        long shard = (id - 1) / idStride;
+        return shard >= 0 && shard < shardCount ? (int) shard : 0;
+    }
+
+    // Murmur3 finalizer; String.hashCode alone clusters similar department names
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
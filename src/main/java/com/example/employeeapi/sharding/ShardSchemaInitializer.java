@@ -0,0 +1,128 @@
+package com.example.employeeapi.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Brings the other shards up to shard 0's employees schema.
+ * Hibernate manages shard 0 as usual and additionally writes its DDL to a script; once the
+ * persistence unit is up, the employees statements from that script are replayed on shards that
+ * do not have the table yet. Each shard's identity column is then moved to its own id range so
+ * ids stay unique across shards, employees are moved to their department's shard, and the global
+ * email index is created and backfilled. All of this runs before the application takes requests.
+ */
+public class ShardSchemaInitializer implements HibernatePropertiesCustomizer, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final Pattern EMPLOYEES_DDL =
+            Pattern.compile("(?is)^\\s*(create|alter)\\b.*?\\b(table|on)\\s+(if\\s+exists\\s+)?employees\\b.*");
+
+    private final ShardRoutingDataSource shards;
+    private final ShardRouter router;
+    private final EmployeeEmailIndex emailIndex;
+    private final ShardRebalancer rebalancer;
+    private final Path script;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource shards, ShardRouter router, EmployeeEmailIndex emailIndex,
+                                  ShardRebalancer rebalancer) {
+        this.shards = shards;
+        this.router = router;
+        this.emailIndex = emailIndex;
+        this.rebalancer = rebalancer;
+        try {
+            this.script = Files.createTempFile("employee-shard-schema", ".sql");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.script.toFile().deleteOnExit();
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        // Once a JPA schema-generation action is set Hibernate ignores hbm2ddl.auto, so carry it over
+        Object databaseAction = hibernateProperties.get("hibernate.hbm2ddl.auto");
+        if (databaseAction != null) {
+            hibernateProperties.putIfAbsent("jakarta.persistence.schema-generation.database.action", databaseAction);
+        }
+        hibernateProperties.put("jakarta.persistence.schema-generation.scripts.action", "create");
+        hibernateProperties.put("jakarta.persistence.schema-generation.scripts.create-target", script.toString());
+        hibernateProperties.put("hibernate.hbm2ddl.schema-generation.script.append", "false");
+        hibernateProperties.put("hibernate.hbm2ddl.delimiter", ";");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> statements = employeeStatements();
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.getShard(shard));
+            if (shard > 0 && !hasEmployeesTable(jdbcTemplate)) {
+                statements.forEach(jdbcTemplate::execute);
+                logger.info("Created employees schema on shard {}", shard);
+            }
+            reserveIdRange(jdbcTemplate, shard);
+        }
+
+        emailIndex.createTable();
+        long moved = rebalancer.rebalance();
+        long indexed = 0;
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            for (String email : new JdbcTemplate(shards.getShard(shard)).queryForList("SELECT email FROM employees", String.class)) {
+                if (emailIndex.index(email, shard)) {
+                    indexed++;
+                }
+            }
+        }
+        logger.info("Sharding ready: {} shards, {} employees moved to their department's shard, {} emails added to the index",
+                shards.getShardCount(), moved, indexed);
+    }
+
+    private List<String> employeeStatements() {
+        String ddl;
+        try {
+            ddl = Files.readString(script);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : ddl.split(";")) {
+            if (EMPLOYEES_DDL.matcher(statement).matches()) {
+                statements.add(statement.trim());
+            }
+        }
+        if (statements.isEmpty()) {
+            throw new IllegalStateException("Hibernate schema script " + script + " has no employees DDL");
+        }
+        return statements;
+    }
+
+    private boolean hasEmployeesTable(JdbcTemplate jdbcTemplate) {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE 1 = 0", Long.class);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Shard n hands out ids from n * stride + 1; skipped when the shard already has rows past that point
+    private void reserveIdRange(JdbcTemplate jdbcTemplate, int shard) {
+        long start = shard * router.getIdStride() + 1;
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM employees", Long.class);
+        if (maxId == null || maxId < start) {
+            jdbcTemplate.execute("ALTER TABLE employees ALTER COLUMN id RESTART WITH " + start);
+        }
+    }
+}
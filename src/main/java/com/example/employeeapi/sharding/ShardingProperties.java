@@ -0,0 +1,49 @@
+package com.example.employeeapi.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings under {@code app.sharding}. Shard 0 is {@code spring.datasource} and also holds the
+ * unsharded tables (users, audit log, email index); {@code shards} lists the additional shards.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /** Department -> shard overrides for hot departments; everything else is placed by hash */
+    private Map<String, Integer> directory = new HashMap<>();
+
+    /** Size of each shard's id range; shard n hands out ids from n * idStride + 1 */
+    private long idStride = 1_000_000_000_000L;
+
+    /** Threads used to query shards in parallel */
+    private int scatterThreads = 16;
+
+    /** Rows moved per batch when employees are moved to their department's shard at startup */
+    private int rebalanceBatchSize = 500;
+
+    /** An email claim this old whose shard has no employee with the email was abandoned and can be taken over */
+    private long emailReservationTimeoutMs = 60_000;
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 10;
+    }
+}
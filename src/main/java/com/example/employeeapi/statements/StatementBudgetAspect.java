@@ -0,0 +1,90 @@
+package com.example.employeeapi.statements;
+
+import com.example.employeeapi.annotation.StatementBudget;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+
+/**
+ * Enforces @StatementBudget on controller methods
+ * Ordered ahead of the security and audit advice, so their lookups and inserts are counted too.
+ * The check runs after the call has returned, when a write has already committed, so only
+ * GET, HEAD and OPTIONS requests are ever failed; any other request just logs the warning.
+ */
+@Aspect
+@Order(0)
+public class StatementBudgetAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudgetAspect.class);
+
+    private static final Set<String> SAFE_METHODS =
+            Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    // Extra statements granted to the budgeted call in progress on this thread
+    private static final ThreadLocal<int[]> ALLOWANCE = new ThreadLocal<>();
+
+    private final boolean failAll;
+
+    public StatementBudgetAspect(boolean failAll) {
+        this.failAll = failAll;
+    }
+
+    /**
+     * Raise the budget of the controller call in progress, for work that grows with the request,
+     * such as one query per chunk of ids; does nothing outside a budgeted call
+     */
+    public static void allow(int statements) {
+        int[] allowance = ALLOWANCE.get();
+        if (allowance != null) {
+            allowance[0] += statements;
+        }
+    }
+
+    @Around("@annotation(budget)")
+    public Object enforceBudget(ProceedingJoinPoint joinPoint, StatementBudget budget) throws Throwable {
+        Object result;
+        int statements;
+        int[] allowance = new int[1];
+        int[] enclosingAllowance = ALLOWANCE.get();
+        ALLOWANCE.set(allowance);
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            result = joinPoint.proceed();
+            statements = scope.getCount();
+        } finally {
+            if (enclosingAllowance != null) {
+                ALLOWANCE.set(enclosingAllowance);
+            } else {
+                ALLOWANCE.remove();
+            }
+        }
+        int limit = budget.value() + allowance[0];
+        if (statements > limit) {
+            logger.atWarn().addKeyValue("method", () -> joinPoint.getSignature().toShortString())
+                    .addKeyValue("statements", statements)
+                    .addKeyValue("budget", limit)
+                    .log("Statement budget exceeded");
+            if ((failAll || budget.fail()) && isSafeRequest()) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Statement budget exceeded");
+            }
+        }
+        return result;
+    }
+
+    // Outside a request there is nothing to fail, and nothing is known about what was written
+    private static boolean isSafeRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return SAFE_METHODS.contains(attributes.getRequest().getMethod());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.employeeapi.statements;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a scope is open
+ * Registered as Hibernate's statement inspector; it only counts and never rewrites the SQL.
+ * Statements run on other threads (shard scatter reads, coalesced loads) count for the
+ * request that runs them, not the one that waits for them.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting on this thread; close the scope to restore the enclosing one
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Statements counted so far by the innermost open scope, or -1 when none is open
+     */
+    public static int current() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.getCount() : -1;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope enclosing;
+        private final Map<String, Integer> repeats = new HashMap<>();
+        private int count;
+
+        private Scope(Scope enclosing) {
+            this.enclosing = enclosing;
+        }
+
+        private void record(String sql) {
+            count++;
+            repeats.merge(sql, 1, Integer::sum);
+            if (enclosing != null) {
+                enclosing.record(sql);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * The statement run most often in this scope with its count, or null when nothing ran
+         * The same SELECT run once per row of an earlier result is the usual N+1 signature.
+         */
+        public Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> top = null;
+            for (Map.Entry<String, Integer> entry : repeats.entrySet()) {
+                if (top == null || entry.getValue() > top.getValue()) {
+                    top = entry;
+                }
+            }
+            return top;
+        }
+
+        @Override
+        public void close() {
+            if (enclosing != null) {
+                CURRENT.set(enclosing);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.employeeapi.statements;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Counts the statements of async request work, such as a streamed export, on the executor
+ * thread that runs it; the counting filter adds them to the request when it is dispatched back
+ */
+public class StatementCountingCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String SCOPE = StatementCountingCallableInterceptor.class.getName() + ".scope";
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        request.setAttribute(SCOPE, StatementCounter.open(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        Object scope = request.getAttribute(SCOPE, RequestAttributes.SCOPE_REQUEST);
+        if (scope instanceof StatementCounter.Scope counted) {
+            request.removeAttribute(SCOPE, RequestAttributes.SCOPE_REQUEST);
+            counted.close();
+            StatementCountingFilter.carry(request.getNativeRequest(HttpServletRequest.class),
+                    counted.getCount());
+        }
+    }
+}
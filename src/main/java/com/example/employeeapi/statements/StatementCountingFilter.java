@@ -0,0 +1,85 @@
+package com.example.employeeapi.statements;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of each REST request
+ * Publishes them as the db.statements distribution per route and warns when a single
+ * statement repeats often enough to look like an N+1 query. A request that goes async is
+ * recorded once, when it is dispatched back, including what ran on the async thread.
+ */
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+    // Statements counted so far by dispatches and async work that did not record the request
+    private static final String CARRIED = StatementCountingFilter.class.getName() + ".carried";
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public StatementCountingFilter(MeterRegistry meterRegistry, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                carry(request, scope.getCount());
+            } else {
+                Object carried = request.getAttribute(CARRIED);
+                record(request, scope, scope.getCount() + (carried instanceof Integer count ? count : 0));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Add statements run for the request outside a dispatch, recorded with it once it completes
+     */
+    static void carry(HttpServletRequest request, int statements) {
+        Object carried = request.getAttribute(CARRIED);
+        request.setAttribute(CARRIED, statements + (carried instanceof Integer count ? count : 0));
+    }
+
+    private void record(HttpServletRequest request, StatementCounter.Scope scope, int statements) {
+        // Route patterns only, so unmatched URIs cannot grow the number of series
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("db.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+        Map.Entry<String, Integer> repeated = scope.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            logger.atWarn().addKeyValue("uri", uri)
+                    .addKeyValue("times", repeated.getValue())
+                    .addKeyValue("statements", statements)
+                    .addKeyValue("sql", repeated.getKey())
+                    .log("Repeated statement in one request");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.employeeapi.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings under {@code app.warmup}; bound as a class because the request list cannot be
+ * expressed with {@code @Value}
+ */
+@ConfigurationProperties(prefix = "app.warmup")
+@Getter
+@Setter
+public class WarmupProperties {
+
+    private boolean enabled;
+
+    /** GET paths replayed in turn; responses are read in full but otherwise ignored */
+    private List<String> paths = new ArrayList<>();
+
+    /** Parallel callers; also the number of connections opened up front on the primary pool */
+    private int concurrency = 8;
+
+    private int requestsPerRound = 200;
+
+    /** Rounds always run, even when the first ones already meet the target */
+    private int minRounds = 3;
+
+    /** Warm-up ends once a round's 95th percentile latency is at or below this */
+    private long targetP95Ms = 50;
+
+    /** Upper bound on the warm-up; the instance reports ready afterwards even if the target was missed */
+    private long maxDurationMs = 60000;
+
+    /** Fail startup instead of reporting ready when the target is still missed after max-duration-ms */
+    private boolean failOnTimeout;
+}
@@ -0,0 +1,227 @@
+package com.example.employeeapi.warmup;
+
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.security.JwtUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms a fresh instance before it takes traffic. Connections are opened on the primary pool up
+ * front, then the configured reads are replayed over loopback HTTP from several threads, so the
+ * security aspect, Jackson, Hibernate query plans, the version cache and the JIT all see real
+ * work. Rounds repeat until one meets the p95 latency target or the time budget runs out.
+ * <p>
+ * It runs as the last ready listener; Boot only marks the instance ACCEPTING_TRAFFIC once all
+ * ready listeners return, so /actuator/health/readiness stays down for the whole warm-up.
+ */
+public class WarmupRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final WarmupProperties properties;
+    private final DataSource dataSource;
+    private final JwtUtil jwtUtil;
+
+    private final AtomicLong durationMs = new AtomicLong();
+    private final AtomicLong rounds = new AtomicLong();
+    private final AtomicLong firstRoundP95Ms = new AtomicLong();
+    private final AtomicLong lastRoundP95Ms = new AtomicLong();
+    private final AtomicLong targetMet = new AtomicLong();
+
+    public WarmupRunner(WarmupProperties properties, DataSource dataSource, JwtUtil jwtUtil,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.jwtUtil = jwtUtil;
+
+        TimeGauge.builder("warmup.duration", durationMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time spent warming up before reporting ready")
+                .register(meterRegistry);
+        Gauge.builder("warmup.rounds", rounds, AtomicLong::get)
+                .register(meterRegistry);
+        TimeGauge.builder("warmup.latency.p95", firstRoundP95Ms, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .tag("round", "first")
+                .description("95th percentile latency of the warm-up requests")
+                .register(meterRegistry);
+        TimeGauge.builder("warmup.latency.p95", lastRoundP95Ms, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .tag("round", "last")
+                .description("95th percentile latency of the warm-up requests")
+                .register(meterRegistry);
+        Gauge.builder("warmup.target.met", targetMet, AtomicLong::get)
+                .description("1 when the last warm-up round met the latency target")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp(ApplicationReadyEvent event) throws InterruptedException {
+        if (!(event.getApplicationContext() instanceof WebServerApplicationContext webContext)
+                || properties.getPaths().isEmpty()) {
+            return;
+        }
+        String contextPath = event.getApplicationContext().getEnvironment()
+                .getProperty("server.servlet.context-path", "");
+        RestClient client = RestClient.builder()
+                .baseUrl("http://localhost:" + webContext.getWebServer().getPort() + contextPath)
+                // Internal token that never leaves this JVM; ADMIN passes every read endpoint's role check
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken("warmup", Set.of(Role.ADMIN)))
+                .build();
+
+        logger.info("Warm-up started: {} paths, {} callers, p95 target {} ms",
+                properties.getPaths().size(), properties.getConcurrency(), properties.getTargetP95Ms());
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(properties.getMaxDurationMs());
+        prefillConnections();
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long requests = 0;
+        long failures = 0;
+        boolean met = false;
+        try {
+            while (!met && System.nanoTime() < deadline) {
+                RoundResult round = runRound(client, callers);
+                requests += round.latenciesNanos.length;
+                failures += round.failures;
+                long p95Ms = TimeUnit.NANOSECONDS.toMillis(percentile(round.latenciesNanos, 0.95));
+                if (rounds.incrementAndGet() == 1) {
+                    firstRoundP95Ms.set(p95Ms);
+                }
+                lastRoundP95Ms.set(p95Ms);
+                met = rounds.get() >= properties.getMinRounds() && p95Ms <= properties.getTargetP95Ms();
+                logger.debug("Warm-up round {}: p95 {} ms, {} failed requests", rounds.get(), p95Ms, round.failures);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        durationMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        targetMet.set(met ? 1 : 0);
+        if (failures > 0) {
+            // Failed calls still warm most of the path, but usually mean a path in app.warmup.paths is wrong
+            logger.warn("Warm-up: {} of {} requests failed or returned a server error", failures, requests);
+        }
+        if (met) {
+            logger.info("Warm-up finished in {} ms: {} rounds, {} requests, p95 {} ms -> {} ms",
+                    durationMs.get(), rounds.get(), requests, firstRoundP95Ms.get(), lastRoundP95Ms.get());
+            return;
+        }
+        String message = String.format("Warm-up missed the p95 target of %d ms after %d ms: %d rounds, p95 %d ms -> %d ms",
+                properties.getTargetP95Ms(), durationMs.get(), rounds.get(), firstRoundP95Ms.get(), lastRoundP95Ms.get());
+        if (properties.isFailOnTimeout()) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn("{}; reporting ready anyway", message);
+    }
+
+    // Holding several connections at once makes the pool open them now rather than under load
+    private void prefillConnections() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < properties.getConcurrency(); i++) {
+                Connection connection = dataSource.getConnection();
+                held.add(connection);
+                // Routing proxies only fetch the physical connection on first use
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            logger.warn("Warm-up could not open {} connections: {}", properties.getConcurrency(), e.getMessage());
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    private RoundResult runRound(RestClient client, ExecutorService callers) throws InterruptedException {
+        List<String> paths = properties.getPaths();
+        AtomicInteger failures = new AtomicInteger();
+        List<Callable<Long>> calls = new ArrayList<>(properties.getRequestsPerRound());
+        for (int i = 0; i < properties.getRequestsPerRound(); i++) {
+            String path = paths.get(i % paths.size());
+            calls.add(() -> call(client, path, failures));
+        }
+
+        List<Future<Long>> results = callers.invokeAll(calls);
+        long[] latencies = new long[results.size()];
+        for (int i = 0; i < latencies.length; i++) {
+            try {
+                latencies[i] = results.get(i).get();
+            } catch (ExecutionException e) {
+                failures.incrementAndGet();
+            }
+        }
+        return new RoundResult(latencies, failures.get());
+    }
+
+    // Failed calls still count toward the percentile; 4xx (e.g. an id that does not exist) is a served request
+    private long call(RestClient client, String path, AtomicInteger failures) {
+        long start = System.nanoTime();
+        try {
+            boolean serverError = client.get().uri(path).exchange((request, response) -> {
+                response.getBody().readAllBytes();
+                return response.getStatusCode().is5xxServerError();
+            });
+            if (serverError) {
+                failures.incrementAndGet();
+            }
+        } catch (RestClientException e) {
+            failures.incrementAndGet();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long percentile(long[] values, double fraction) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private static final class RoundResult {
+
+        private final long[] latenciesNanos;
+        private final int failures;
+
+        private RoundResult(long[] latenciesNanos, int failures) {
+            this.latenciesNanos = latenciesNanos;
+            this.failures = failures;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.entity.AuditLog;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.AuditLogRepository;
+import com.example.employeeapi.security.JwtUtil;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging of the audit log: entries written in the same instant share a timestamp, so pages
+ * must be cut on the id alone and every entry must appear exactly once
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuditControllerTest {
+
+    private static final LocalDateTime INSTANT = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusMinutes(5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final String username = "auditor-" + System.nanoTime();
+    private final List<AuditLog> saved = new ArrayList<>();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken("admin", Set.of(Role.ADMIN));
+        // Ten entries in one instant, alternating actions, and two older ones outside the from filter
+        for (int i = 0; i < 10; i++) {
+            saved.add(save(i % 2 == 0 ? "CREATE" : "UPDATE", i, INSTANT));
+        }
+        saved.add(save("CREATE", 10, INSTANT.minusMinutes(1)));
+        saved.add(save("UPDATE", 11, INSTANT.minusMinutes(1)));
+    }
+
+    @AfterEach
+    void removeEntries() {
+        auditLogRepository.deleteAll(saved);
+    }
+
+    @Test
+    void pagesThroughEqualTimestampsWithoutSkippingOrRepeating() throws Exception {
+        List<Long> paged = pageAll(() -> query().param("from", INSTANT.toString()), 3);
+
+        assertThat(paged).containsExactlyElementsOf(idsNewestFirst(saved.subList(0, 10)));
+    }
+
+    @Test
+    void pagesCutInsideAFilteredRunOfEqualTimestamps() throws Exception {
+        List<Long> paged = pageAll(() -> query().param("action", "update"), 2);
+
+        assertThat(paged).containsExactlyElementsOf(idsNewestFirst(
+                saved.stream().filter(entry -> entry.getAction().equals("UPDATE")).toList()));
+    }
+
+    @Test
+    void aPageEndingOnTheLastEntryHasNoCursor() throws Exception {
+        mockMvc.perform(query().param("limit", Integer.toString(saved.size())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(saved.size()))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    // Follows nextCursor until it runs out, checking each page's size on the way
+    private List<Long> pageAll(Supplier<MockHttpServletRequestBuilder> query, int limit) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        Number before = null;
+        do {
+            MockHttpServletRequestBuilder page = query.get().param("limit", Integer.toString(limit));
+            if (before != null) {
+                page.param("before", before.toString());
+            }
+            String body = mockMvc.perform(page).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            List<Number> items = JsonPath.read(body, "$.items[*].id");
+            before = JsonPath.read(body, "$.nextCursor");
+            if (before != null) {
+                assertThat(items).hasSize(limit);
+                assertThat(before.longValue()).isEqualTo(items.get(items.size() - 1).longValue());
+            } else {
+                assertThat(items).hasSizeLessThanOrEqualTo(limit);
+            }
+            items.forEach(id -> ids.add(id.longValue()));
+        } while (before != null);
+        assertThat(ids).doesNotHaveDuplicates();
+        return ids;
+    }
+
+    private MockHttpServletRequestBuilder query() {
+        return get("/api/audit").param("username", username)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private AuditLog save(String action, long entityId, LocalDateTime timestamp) {
+        AuditLog entry = new AuditLog(action, "Employee", entityId, username);
+        entry.setTimestamp(timestamp);
+        return auditLogRepository.save(entry);
+    }
+
+    private static List<Long> idsNewestFirst(List<AuditLog> entries) {
+        return entries.stream().map(AuditLog::getId).sorted(Comparator.reverseOrder()).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.config.EmployeeColumnarHttpMessageConverter;
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.security.JwtUtil;
+import com.example.employeeapi.service.UserSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The columnar format is offered for employee lists and sparse fieldset rows only; other bodies are
+ * not acceptable in it rather than failing half-way through the write
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ColumnarFormatNegotiationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken("admin", Set.of(Role.ADMIN));
+    }
+
+    @Test
+    void writesEmployeesAndFieldsetRows() throws Exception {
+        for (String uri : new String[]{"/api/employees", "/api/employees?fields=id,name"}) {
+            byte[] body = mockMvc.perform(columnar(get(uri)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(EmployeeColumnarHttpMessageConverter.MEDIA_TYPE))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            assertThat(new String(Arrays.copyOf(body, 4), StandardCharsets.US_ASCII)).as(uri).isEqualTo("EMPC");
+        }
+    }
+
+    @Test
+    void otherListsAreNotAcceptable() throws Exception {
+        mockMvc.perform(columnar(get("/api/users/autocomplete").param("q", "ad")))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void otherBodiesAreNotAcceptable() throws Exception {
+        mockMvc.perform(columnar(get("/api/employees/count")))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void declaredElementTypesDecideWithoutTheRows() {
+        EmployeeColumnarHttpMessageConverter converter = new EmployeeColumnarHttpMessageConverter();
+
+        assertThat(converter.canWrite(listOf(Employee.class), List.class, EmployeeColumnarHttpMessageConverter.MEDIA_TYPE)).isTrue();
+        assertThat(converter.canWrite(listOf(Map.class), List.class, EmployeeColumnarHttpMessageConverter.MEDIA_TYPE)).isTrue();
+        assertThat(converter.canWrite(listOf(UserSnapshot.class), List.class, EmployeeColumnarHttpMessageConverter.MEDIA_TYPE)).isFalse();
+        assertThat(converter.canWrite(Map.class, Map.class, EmployeeColumnarHttpMessageConverter.MEDIA_TYPE)).isFalse();
+    }
+
+    private MockHttpServletRequestBuilder columnar(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(EmployeeColumnarHttpMessageConverter.MEDIA_TYPE);
+    }
+
+    private static Type listOf(Class<?> element) {
+        return ResolvableType.forClassWithGenerics(List.class, element).getType();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.enums.ChangeType;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.security.JwtUtil;
+import com.example.employeeapi.service.EmployeeChangeLog;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Resuming the change stream and long poll, against the application's change log. Cursors from
+ * "before a restart" are made with a second log, which has an epoch of its own.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EmployeeChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeChangeLog changeLog;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken("admin", Set.of(Role.ADMIN));
+    }
+
+    @Test
+    void longPollResumesAfterItsCursor() throws Exception {
+        long resumeAfter = publish();
+        long next = publish();
+
+        MvcResult poll = mockMvc.perform(authorized(longPoll(changeLog.cursor(resumeAfter), 1000)))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(poll))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.events[0].sequence").value(next))
+                .andExpect(jsonPath("$.cursor").value(changeLog.cursor(changeLog.getLastSequence())));
+    }
+
+    @Test
+    void longPollWakesUpOnTheNextChange() throws Exception {
+        String cursor = changeLog.cursor(changeLog.getLastSequence());
+        MvcResult poll = mockMvc.perform(authorized(longPoll(cursor, 10000)))
+                .andExpect(request().asyncStarted()).andReturn();
+        // Still waiting
+        assertThatThrownBy(() -> poll.getAsyncResult(0)).isInstanceOf(IllegalStateException.class);
+
+        long published = publish();
+
+        mockMvc.perform(asyncDispatch(poll))
+                .andExpect(jsonPath("$.events[0].sequence").value(published))
+                .andExpect(jsonPath("$.reset").value(false));
+    }
+
+    @Test
+    void longPollAnswersWithNoEventsWhenItTimesOut() throws Exception {
+        String cursor = changeLog.cursor(changeLog.getLastSequence());
+        MvcResult poll = mockMvc.perform(authorized(longPoll(cursor, 50)))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        // What the container does once the async timeout has passed
+        MockAsyncContext asyncContext = (MockAsyncContext) poll.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(poll))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events").isEmpty())
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.cursor").value(cursor));
+    }
+
+    @Test
+    void longPollWithoutATimeoutAnswersRightAway() throws Exception {
+        String cursor = changeLog.cursor(changeLog.getLastSequence());
+        for (long timeoutMs : new long[]{0, -5}) {
+            MvcResult poll = mockMvc.perform(authorized(longPoll(cursor, timeoutMs))).andReturn();
+
+            assertThat(poll.getAsyncResult(0)).isNotNull();
+            mockMvc.perform(asyncDispatch(poll))
+                    .andExpect(jsonPath("$.events").isEmpty())
+                    .andExpect(jsonPath("$.cursor").value(cursor));
+        }
+    }
+
+    @Test
+    void longPollResetsCursorsFromBeforeARestart() throws Exception {
+        publish();
+        EmployeeChangeLog beforeRestart = new EmployeeChangeLog(16);
+
+        for (String cursor : new String[]{beforeRestart.cursor(0), beforeRestart.cursor(changeLog.getLastSequence() + 50)}) {
+            MvcResult poll = mockMvc.perform(authorized(longPoll(cursor, 10000))).andReturn();
+
+            mockMvc.perform(asyncDispatch(poll))
+                    .andExpect(jsonPath("$.reset").value(true))
+                    .andExpect(jsonPath("$.events[0].sequence").value(1));
+        }
+    }
+
+    @Test
+    void streamResumesAfterLastEventId() throws Exception {
+        long resumeAfter = publish();
+        long next = publish();
+
+        MvcResult stream = mockMvc.perform(authorized(get("/api/employees/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", changeLog.cursor(resumeAfter))))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        String content = awaitContent(stream, "id:" + changeLog.cursor(next));
+        assertThat(content).doesNotContain("id:" + changeLog.cursor(resumeAfter) + "\n").doesNotContain("event:reset");
+    }
+
+    @Test
+    void streamSendsResetForALastEventIdFromBeforeARestart() throws Exception {
+        publish();
+        EmployeeChangeLog beforeRestart = new EmployeeChangeLog(16);
+
+        MvcResult stream = mockMvc.perform(authorized(get("/api/employees/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", beforeRestart.cursor(changeLog.getLastSequence() + 50))))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        String content = awaitContent(stream, "id:" + changeLog.cursor(1));
+        assertThat(content).startsWith("event:reset");
+    }
+
+    private long publish() {
+        changeLog.publish(ChangeType.UPDATE, 1L, 1L);
+        return changeLog.getLastSequence();
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static MockHttpServletRequestBuilder longPoll(String since, long timeoutMs) {
+        return get("/api/employees/changes").accept(MediaType.APPLICATION_JSON)
+                .param("since", since).param("timeoutMs", Long.toString(timeoutMs));
+    }
+
+    // Events are written from a delivery thread, so wait for the one expected
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.config.EmployeeColumnarHttpMessageConverter;
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.security.JwtUtil;
+import com.example.employeeapi.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional requests on employees: revalidation with If-None-Match, lost-update protection with
+ * If-Match, and one strong tag per representation of a single employee
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EmployeeControllerETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken("admin", Set.of(Role.ADMIN));
+        employee = employeeService.createEmployee(
+                new Employee("Tagged", "tagged-" + System.nanoTime() + "@example.com", "Engineering", new BigDecimal("1000.00")));
+    }
+
+    @AfterEach
+    void removeEmployee() {
+        employeeService.deleteEmployee(employee.getId());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        String etag = etagOf(get(employeeUri()));
+        assertThat(etag).isEqualTo("\"" + employee.getVersion() + "-json\"");
+
+        mockMvc.perform(authorized(get(employeeUri())).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void ifNoneMatchComparesWeakly() throws Exception {
+        String etag = etagOf(get(employeeUri()));
+
+        for (String ifNoneMatch : new String[]{"W/" + etag, "\"0-json\", " + etag, "*"}) {
+            mockMvc.perform(authorized(get(employeeUri())).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified());
+        }
+
+        String collection = etagOf(get("/api/employees"));
+        assertThat(collection).startsWith("W/");
+        mockMvc.perform(authorized(get("/api/employees")).header(HttpHeaders.IF_NONE_MATCH, collection.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void staleIfNoneMatchGetsTheCurrentRepresentation() throws Exception {
+        String stale = etagOf(get(employeeUri()));
+        rename("Renamed");
+
+        mockMvc.perform(authorized(get(employeeUri())).header(HttpHeaders.IF_NONE_MATCH, stale))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (employee.getVersion() + 1) + "-json\""));
+    }
+
+    @Test
+    void eachRepresentationHasItsOwnTag() throws Exception {
+        String json = etagOf(get(employeeUri()).accept(MediaType.APPLICATION_JSON));
+        String cbor = etagOf(get(employeeUri()).accept(MediaType.APPLICATION_CBOR));
+        String smile = etagOf(get(employeeUri()).accept("application/x-jackson-smile"));
+
+        assertThat(cbor).isEqualTo("\"" + employee.getVersion() + "-cbor\"");
+        assertThat(Set.of(json, cbor, smile)).hasSize(3);
+        // A JSON tag does not validate a cached CBOR body
+        mockMvc.perform(authorized(get(employeeUri()).accept(MediaType.APPLICATION_CBOR))
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, cbor));
+        // Single employees are not offered in the columnar list format
+        mockMvc.perform(authorized(get(employeeUri()).accept(EmployeeColumnarHttpMessageConverter.MEDIA_TYPE)))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        String etag = etagOf(get(employeeUri()));
+        rename("First");
+
+        mockMvc.perform(update("Second").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(authorized(get(employeeUri())))
+                .andExpect(jsonPath("$.name").value("First"));
+    }
+
+    @Test
+    void ifMatchAcceptsAnyRepresentationOfTheCurrentVersion() throws Exception {
+        String cbor = etagOf(get(employeeUri()).accept(MediaType.APPLICATION_CBOR));
+
+        mockMvc.perform(update("Matched").header(HttpHeaders.IF_MATCH, cbor))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (employee.getVersion() + 1) + "-json\""));
+    }
+
+    @Test
+    void weakIfMatchNeverMatches() throws Exception {
+        String etag = etagOf(get(employeeUri()));
+
+        mockMvc.perform(update("Weak").header(HttpHeaders.IF_MATCH, "W/" + etag))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        String etag = mockMvc.perform(authorized(request))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    private void rename(String name) throws Exception {
+        mockMvc.perform(update(name)).andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder update(String name) {
+        return authorized(put(employeeUri()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"email\":\"" + employee.getEmail()
+                        + "\",\"department\":\"Engineering\",\"salary\":1000.00}");
+    }
+
+    private String employeeUri() {
+        return "/api/employees/" + employee.getId();
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
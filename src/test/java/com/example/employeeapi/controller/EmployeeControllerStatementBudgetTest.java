@@ -0,0 +1,239 @@
+package com.example.employeeapi.controller;
+
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.EmployeeRankingRepositoryImpl;
+import com.example.employeeapi.security.JwtUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Statements each request shape of the employee endpoints runs, read from the db.statements
+ * summary the counting filter records per route. Budgets fail in this context, so a read shape
+ * that outgrows its @StatementBudget shows up as a 500 as well as a wrong count. Reads do not
+ * linger, so every read queries instead of joining an earlier one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;DB_CLOSE_DELAY=-1",
+        "app.statement-budget.mode=fail",
+        "app.coalescing.linger-ms=0"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class EmployeeControllerStatementBudgetTest {
+
+    private static final String BY_ID = "/api/employees/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeRankingRepositoryImpl rankingRepository;
+
+    private String token;
+    private final List<String> createdEmails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        token = jwtUtil.generateToken("admin", Set.of(Role.ADMIN));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String email : createdEmails) {
+            jdbcTemplate.update("DELETE FROM employees WHERE email = ?", email);
+        }
+    }
+
+    @Test
+    void createChecksTheEmailAndAudits() throws Exception {
+        createdEmails.add("budget.create@example.com");
+
+        // Email check, insert, user and roles for the audit entry, audit insert
+        assertThat(statements("POST", "/api/employees", post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+                .content(employeeJson("Budget Create", "budget.create@example.com")), 201)).isEqualTo(5);
+    }
+
+    @Test
+    void getByIdRunsOneQueryForEveryFieldset() throws Exception {
+        assertThat(statements("GET", BY_ID, get("/api/employees/1"), 200)).isEqualTo(1);
+        assertThat(statements("GET", BY_ID, get("/api/employees/1").param("fields", "name"), 200)).isEqualTo(1);
+        assertThat(statements("GET", BY_ID, get("/api/employees/1").param("fields", "name,version"), 200)).isEqualTo(1);
+        assertThat(statements("GET", BY_ID, get("/api/employees/1").param("fields", "name")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""), 200)).isEqualTo(1);
+        assertThat(statements("GET", BY_ID, get("/api/employees/999999"), 404)).isEqualTo(1);
+    }
+
+    @Test
+    void conditionalGetByIdLooksUpTheVersionOnlyOnACacheMiss() throws Exception {
+        // Written behind the service's back, so the version cache has never seen it
+        Long id = insertDirectly("Budget Cold", "budget.cold@example.com");
+
+        assertThat(statements("GET", BY_ID, get("/api/employees/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""), 200)).isEqualTo(2);
+        assertThat(statements("GET", BY_ID, get("/api/employees/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""), 200)).isEqualTo(1);
+        String etag = mockMvc.perform(authorized(get("/api/employees/" + id))).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(statements("GET", BY_ID, get("/api/employees/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, etag), 304)).isZero();
+    }
+
+    @Test
+    void batchGetRunsOneQueryPerChunk() throws Exception {
+        assertThat(statements("POST", "/api/employees/batch-get", batchGet(LongStream.of(1, 2, 3, 2)), 200))
+                .isEqualTo(1);
+        // 150 distinct ids make two chunks of app.batch-get.chunk-size (100)
+        assertThat(statements("POST", "/api/employees/batch-get", batchGet(LongStream.rangeClosed(1, 150)), 200))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void updateChecksTheEmailOnlyWhenItChanges() throws Exception {
+        Long id = insertDirectly("Budget Update", "budget.update@example.com");
+        createdEmails.add("budget.moved@example.com");
+
+        // Existence check, load, update, user and roles for the audit entry, audit insert
+        assertThat(statements("PUT", BY_ID, put("/api/employees/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(employeeJson("Budget Renamed", "budget.update@example.com")), 200)).isEqualTo(5);
+        assertThat(statements("PUT", BY_ID, put("/api/employees/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(employeeJson("Budget Renamed", "budget.moved@example.com")), 200)).isEqualTo(6);
+    }
+
+    @Test
+    void deleteStaysWithinItsBudget() throws Exception {
+        Long id = insertDirectly("Budget Delete", "budget.delete@example.com");
+
+        assertThat(statements("DELETE", BY_ID, delete("/api/employees/" + id), 200)).isEqualTo(5);
+    }
+
+    @Test
+    void collectionReadsRunOneQuery() throws Exception {
+        assertThat(statements("GET", "/api/employees", get("/api/employees"), 200)).isEqualTo(1);
+        assertThat(statements("GET", "/api/employees", get("/api/employees").param("fields", "name"), 200))
+                .isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/department/{department}",
+                get("/api/employees/department/Engineering"), 200)).isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/search", get("/api/employees/search").param("name", "john"), 200))
+                .isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/count", get("/api/employees/count"), 200)).isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/health", get("/api/employees/health"), 200)).isZero();
+    }
+
+    @Test
+    void lookupsAndQueriesRunOneQuery() throws Exception {
+        assertThat(statements("GET", "/api/employees/email/{email}", get("/api/employees/email/john.doe@example.com"), 200))
+                .isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/email/{email}", get("/api/employees/email/nobody@example.com"), 404))
+                .isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/query", get("/api/employees/query"), 200)).isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/query", get("/api/employees/query")
+                .param("department", "Engineering").param("namePrefix", "j").param("minSalary", "1000")
+                .param("maxSalary", "100000").param("sort", "salary,desc").param("limit", "10"), 200)).isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/query", get("/api/employees/query")
+                .param("department", "Engineering").param("fields", "id,name"), 200)).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"window", "heap"})
+    void rankingsStayWithinTheirBudgetsOnEitherStrategy(String strategy) throws Exception {
+        ReflectionTestUtils.setField(rankingRepository, "strategy", strategy);
+        try {
+            assertThat(statements("GET", "/api/employees/ranking/top", get("/api/employees/ranking/top")
+                    .param("k", "2"), 200)).isEqualTo(1);
+            // The heap selection needs every department's size before it scans
+            assertThat(statements("GET", "/api/employees/ranking/percentile", get("/api/employees/ranking/percentile")
+                    .param("percent", "50"), 200)).isEqualTo(strategy.equals("heap") ? 2 : 1);
+        } finally {
+            ReflectionTestUtils.setField(rankingRepository, "strategy", "auto");
+        }
+    }
+
+    @Test
+    void exportStreamsFromOneQuery() throws Exception {
+        assertThat(statements("GET", "/api/employees/export", get("/api/employees/export"), 200)).isEqualTo(1);
+        assertThat(statements("GET", "/api/employees/export", get("/api/employees/export")
+                .param("department", "Engineering"), 200)).isEqualTo(1);
+    }
+
+    @Test
+    void loginLoadsTheUserAndRoles() throws Exception {
+        assertThat(statements("POST", "/auth/login", post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"admin\",\"password\":\"password\"}"), 200)).isEqualTo(2);
+    }
+
+    // Statements the request ran, after checking it answered with the expected status
+    private long statements(String method, String uri, MockHttpServletRequestBuilder request, int status) throws Exception {
+        double before = recorded(method, uri);
+        MvcResult result = mockMvc.perform(authorized(request)).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            // Streamed responses are recorded once dispatched back
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertThat(result.getResponse().getStatus()).as(method + " " + uri).isEqualTo(status);
+        return Math.round(recorded(method, uri) - before);
+    }
+
+    private double recorded(String method, String uri) {
+        DistributionSummary summary = meterRegistry.find("db.statements").tag("method", method).tag("uri", uri).summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static MockHttpServletRequestBuilder batchGet(LongStream ids) {
+        return post("/api/employees/batch-get").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + ids.mapToObj(Long::toString).collect(Collectors.joining(",")) + "]}");
+    }
+
+    private static String employeeJson(String name, String email) {
+        return "{\"name\":\"" + name + "\",\"email\":\"" + email
+                + "\",\"department\":\"Engineering\",\"salary\":50000}";
+    }
+
+    private Long insertDirectly(String name, String email) {
+        createdEmails.add(email);
+        jdbcTemplate.update("INSERT INTO employees (name, name_lower, email, department, salary, version) "
+                + "VALUES (?, ?, ?, 'Engineering', 50000, 0)", name, name.toLowerCase(), email);
+        return jdbcTemplate.queryForObject("SELECT id FROM employees WHERE email = ?", Long.class, email);
+    }
+}
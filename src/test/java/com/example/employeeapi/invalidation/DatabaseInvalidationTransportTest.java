@@ -0,0 +1,107 @@
+package com.example.employeeapi.invalidation;
+
+import com.example.employeeapi.entity.CacheInvalidation;
+import com.example.employeeapi.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ids skipped by a poll, as left by transactions that commit out of order, are picked up by later
+ * polls until they show up or time out
+ */
+class DatabaseInvalidationTransportTest {
+
+    private final CacheInvalidationRepository repository = mock(CacheInvalidationRepository.class);
+    private final DatabaseInvalidationTransport transport = new DatabaseInvalidationTransport();
+    private final List<Long> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void startAfterRowTen() {
+        ReflectionTestUtils.setField(transport, "repository", repository);
+        ReflectionTestUtils.setField(transport, "batchSize", 500);
+        ReflectionTestUtils.setField(transport, "gapTimeoutMs", 60_000L);
+        when(repository.findTopByOrderByIdDesc()).thenReturn(Optional.of(row(10)));
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(repository.findByIdIn(anyCollection())).thenReturn(List.of());
+        transport.start(messages -> messages.forEach(message -> delivered.add(message.getEntityId())));
+    }
+
+    @Test
+    void rowsCommittedLateAreDeliveredByALaterPoll() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class))).thenReturn(List.of(row(11), row(14)));
+        transport.poll();
+        assertThat(delivered).containsExactly(11L, 14L);
+
+        when(repository.findByIdIn(List.of(12L, 13L))).thenReturn(List.of(row(13)));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(14L), any(Limit.class))).thenReturn(List.of(row(15)));
+        transport.poll();
+        assertThat(delivered).containsExactly(11L, 14L, 13L, 15L);
+
+        // 13 is no longer outstanding; 12 still is
+        when(repository.findByIdIn(List.of(12L))).thenReturn(List.of(row(12)));
+        transport.poll();
+        assertThat(delivered).containsExactly(11L, 14L, 13L, 15L, 12L);
+
+        transport.poll();
+        verify(repository).findByIdIn(List.of(12L));
+        assertThat(delivered).hasSize(5);
+    }
+
+    @Test
+    void gapsThatNeverFillAreDroppedAfterTheTimeout() {
+        ReflectionTestUtils.setField(transport, "gapTimeoutMs", -1L);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class))).thenReturn(List.of(row(12)));
+        transport.poll();
+
+        // The first re-check still looks for 11 and then gives up on it
+        transport.poll();
+        verify(repository).findByIdIn(List.of(11L));
+
+        transport.poll();
+        verify(repository).findByIdIn(anyCollection());
+        assertThat(delivered).containsExactly(12L);
+    }
+
+    @Test
+    void jumpsTooLargeForInFlightTransactionsAreNotTracked() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class))).thenReturn(List.of(row(5000)));
+        transport.poll();
+        transport.poll();
+
+        verify(repository, never()).findByIdIn(anyCollection());
+        assertThat(delivered).containsExactly(5000L);
+    }
+
+    @Test
+    void nothingIsPolledBeforeStart() {
+        DatabaseInvalidationTransport stopped = new DatabaseInvalidationTransport();
+        ReflectionTestUtils.setField(stopped, "repository", repository);
+
+        stopped.poll();
+
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    // The row's entity id mirrors its own id so deliveries show which rows arrived
+    private static CacheInvalidation row(long id) {
+        CacheInvalidation row = new CacheInvalidation("other-node", InvalidationBus.EMPLOYEE, id, 1L, 0);
+        row.setId(id);
+        return row;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.employeeapi.invalidation;
+
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.entity.User;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.UserRepository;
+import com.example.employeeapi.service.EmployeeService;
+import com.example.employeeapi.service.EmployeeVersionCache;
+import com.example.employeeapi.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The application's bus and a second one standing in for another node, both on the application's
+ * loopback transport. The second bus is never scheduled, so its flushes happen only when a test
+ * calls them. The context is discarded afterwards, since the transport keeps the second bus.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:invalidation-bus;DB_CLOSE_DELAY=-1")
+@DirtiesContext
+class InvalidationBusTest {
+
+    private static final String PROBE = "Probe";
+
+    @Autowired
+    private InvalidationBus localBus;
+
+    @Autowired
+    private LoopbackInvalidationTransport transport;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeVersionCache employeeVersionCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry remoteRegistry = new SimpleMeterRegistry();
+    private InvalidationBus remoteBus;
+
+    @BeforeEach
+    void startRemoteNode() {
+        remoteBus = new InvalidationBus(transport, remoteRegistry, "remote-node");
+        remoteBus.start();
+    }
+
+    @Test
+    void nodesSkipTheirOwnMessages() {
+        List<InvalidationMessage> seenLocally = new CopyOnWriteArrayList<>();
+        List<InvalidationMessage> seenRemotely = new CopyOnWriteArrayList<>();
+        localBus.subscribe(PROBE, seenLocally::add);
+        remoteBus.subscribe(PROBE, seenRemotely::add);
+
+        remoteBus.publish(PROBE, 1L, 1L);
+        remoteBus.flush();
+
+        assertThat(seenRemotely).isEmpty();
+        assertThat(seenLocally).singleElement().satisfies(message -> {
+            assertThat(message.getOrigin()).isEqualTo("remote-node");
+            assertThat(message.getEntityId()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void burstsToOneEntityAreSentAsOneMessage() {
+        List<InvalidationMessage> seenLocally = new CopyOnWriteArrayList<>();
+        localBus.subscribe(PROBE, seenLocally::add);
+
+        for (long version = 1; version <= 5; version++) {
+            remoteBus.publish(PROBE, 2L, version);
+        }
+        remoteBus.publish(PROBE, 3L, 1L);
+        remoteBus.flush();
+
+        assertThat(remoteRegistry.counter("invalidation.coalesced").count()).isEqualTo(4);
+        assertThat(remoteRegistry.counter("invalidation.sent").count()).isEqualTo(2);
+        assertThat(seenLocally).filteredOn(message -> message.getEntityId() == 2L)
+                .singleElement().extracting(InvalidationMessage::getVersion).isEqualTo(5L);
+    }
+
+    @Test
+    void aDeleteSupersedesQueuedUpdates() {
+        List<InvalidationMessage> seenLocally = new CopyOnWriteArrayList<>();
+        localBus.subscribe(PROBE, seenLocally::add);
+
+        remoteBus.publish(PROBE, 4L, 7L);
+        remoteBus.publish(PROBE, 4L, null);
+        remoteBus.publish(PROBE, 4L, 8L);
+        remoteBus.flush();
+
+        assertThat(seenLocally).singleElement().extracting(InvalidationMessage::getVersion).isNull();
+    }
+
+    @Test
+    void remoteEmployeeWritesReachTheVersionCache() {
+        Employee employee = employeeService.createEmployee(
+                new Employee("Remote Write", "remote-write@example.com", "Engineering", new BigDecimal("1000.00")));
+        long version = employeeVersionCache.getVersion(employee.getId()).orElseThrow();
+        String collectionTag = employeeVersionCache.getCollectionTag();
+
+        remoteBus.publish(InvalidationBus.EMPLOYEE, employee.getId(), version + 3);
+        remoteBus.flush();
+
+        assertThat(employeeVersionCache.getVersion(employee.getId())).contains(version + 3);
+        assertThat(employeeVersionCache.getCollectionTag()).isNotEqualTo(collectionTag);
+
+        remoteBus.publish(InvalidationBus.EMPLOYEE, employee.getId(), null);
+        remoteBus.flush();
+
+        assertThat(employeeVersionCache.getVersion(employee.getId())).isEmpty();
+    }
+
+    @Test
+    void remoteUserWritesRefreshTheDirectory() {
+        User user = userService.createUser(new User("remote-user", "password", "remote-user@example.com",
+                "Remote User", EnumSet.of(Role.EMPLOYEE)));
+
+        // Written as another node would: straight to the database, bypassing this node's directory
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        stored.setActive(false);
+        stored = userRepository.saveAndFlush(stored);
+        assertThat(userService.getActiveUserCount()).isEqualTo(userRepository.countByActiveTrue() + 1);
+
+        remoteBus.publish(InvalidationBus.USER, stored.getId(), stored.getVersion());
+        remoteBus.flush();
+
+        assertThat(userService.getActiveUserCount()).isEqualTo(userRepository.countByActiveTrue());
+
+        userRepository.deleteById(user.getId());
+        assertThat(userService.getTotalUserCount()).isEqualTo(userRepository.count() + 1);
+
+        remoteBus.publish(InvalidationBus.USER, user.getId(), null);
+        remoteBus.flush();
+
+        assertThat(userService.getTotalUserCount()).isEqualTo(userRepository.count());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.employeeapi.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Overload simulation for the limiter: a server that handles CAPACITY requests at base latency and
+ * slows down proportionally beyond that, driven in 1 ms steps at a configurable arrival rate.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int CAPACITY = 20;
+    private static final long BASE_LATENCY_MS = 10;
+
+    @Test
+    void limitSettlesNearCapacityUnderOverload() {
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        Simulation simulation = new Simulation(limiter);
+        // Light traffic first, so the baseline is learned at no load
+        simulation.run(1_000, 1);
+
+        // Five times what the server can handle at base latency
+        Result overload = simulation.run(20_000, 10);
+
+        assertThat(overload.meanLimit()).isBetween(CAPACITY / 2.0, 3.0 * CAPACITY);
+        assertThat(overload.rejected()).isPositive();
+        // Latency settles within the 2x tolerance of the baseline instead of collapsing, and the
+        // server stays busy
+        assertThat(overload.p99LatencyMs()).isLessThanOrEqualTo(3 * BASE_LATENCY_MS);
+        assertThat(overload.completedPerMs()).isGreaterThan(0.5 * CAPACITY / BASE_LATENCY_MS);
+    }
+
+    @Test
+    void rejectsNothingOnceLoadDropsBelowCapacity() {
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        Simulation simulation = new Simulation(limiter);
+        simulation.run(1_000, 1);
+        simulation.run(20_000, 10);
+        // Give the limit a moment to grow back
+        simulation.run(1_000, 1);
+
+        Result recovered = simulation.run(10_000, 1);
+
+        assertThat(recovered.rejected()).isZero();
+        assertThat(recovered.p99LatencyMs()).isEqualTo(BASE_LATENCY_MS);
+    }
+
+    @Test
+    void doesNotGrowWhileTheLimitIsUnused() {
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+
+        new Simulation(limiter).run(10_000, 1);
+
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(50);
+        assertThat(limiter.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void staysWithinConfiguredBounds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 30, 40, 2.0, 0.2, 500);
+        assertThat(limiter.getLimit()).isEqualTo(40);
+
+        new Simulation(limiter).run(10_000, 10);
+
+        assertThat(limiter.getLimit()).isBetween(30, 40);
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter("test", 10, 0, 10, 2.0, 0.2, 500))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter("test", 10, 20, 10, 2.0, 0.2, 500))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 2, 200, 2.0, 0.2, 500);
+    }
+
+    private record Result(long rejected, long p99LatencyMs, double completedPerMs, double meanLimit) {
+    }
+
+    private record InFlight(long completesAt, long latencyMs) {
+    }
+
+    private static final class Simulation {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final PriorityQueue<InFlight> inFlight =
+                new PriorityQueue<>((a, b) -> Long.compare(a.completesAt(), b.completesAt()));
+        private long now;
+
+        Simulation(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        Result run(long durationMs, int arrivalsPerMs) {
+            long rejectedBefore = limiter.getRejectedCount();
+            List<Long> latencies = new ArrayList<>();
+            long limitSum = 0;
+            long end = now + durationMs;
+            for (; now < end; now++) {
+                limitSum += limiter.getLimit();
+                while (!inFlight.isEmpty() && inFlight.peek().completesAt() <= now) {
+                    InFlight done = inFlight.poll();
+                    limiter.release(done.latencyMs() * 1_000_000L);
+                    latencies.add(done.latencyMs());
+                }
+                for (int i = 0; i < arrivalsPerMs; i++) {
+                    if (limiter.tryAcquire()) {
+                        // Beyond capacity every request in flight shares the server
+                        long latency = Math.max(BASE_LATENCY_MS, BASE_LATENCY_MS * limiter.getInFlight() / CAPACITY);
+                        inFlight.add(new InFlight(now + latency, latency));
+                    }
+                }
+            }
+            latencies.sort(null);
+            long p99 = latencies.isEmpty() ? 0 : latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+            return new Result(limiter.getRejectedCount() - rejectedBefore, p99,
+                    (double) latencies.size() / durationMs, (double) limitSum / durationMs);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.employeeapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingFilterTest {
+
+    private static final String LOGGER = "com.example.employeeapi.aspect.SecurityAspect";
+
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void samplesInfoBeyondTheBurst() {
+        SamplingFilter filter = filter("INFO");
+
+        long passed = countPassed(filter, Level.INFO, 250);
+
+        // 20 in the burst, then one in every 100 of the remaining 230; twice that if the second rolls over
+        assertThat(passed).isBetween(22L, 44L);
+        assertThat(filter.getSampledOut()).isEqualTo(250 - passed);
+    }
+
+    @Test
+    void neverSamplesWarnings() {
+        SamplingFilter filter = filter("INFO");
+
+        assertThat(countPassed(filter, Level.WARN, 250)).isEqualTo(250);
+        assertThat(filter.getSampledOut()).isZero();
+    }
+
+    @Test
+    void refusesToStartAtWarn() {
+        SamplingFilter filter = filter("WARN");
+
+        assertThat(filter.isStarted()).isFalse();
+        // A filter that did not start lets everything through
+        assertThat(countPassed(filter, Level.WARN, 250)).isEqualTo(250);
+    }
+
+    private SamplingFilter filter(String level) {
+        SamplingFilter filter = new SamplingFilter();
+        filter.setContext(context);
+        filter.setLogger(LOGGER);
+        filter.setLevel(level);
+        filter.start();
+        return filter;
+    }
+
+    // Same template every time
+    private long countPassed(SamplingFilter filter, Level level, int events) {
+        long passed = 0;
+        for (int i = 0; i < events; i++) {
+            LoggingEvent event = new LoggingEvent(LOGGER, context.getLogger(LOGGER), level, "Access denied", null, null);
+            if (filter.decide(event) != FilterReply.DENY) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.service.EmployeeService;
+import com.example.employeeapi.statements.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression checks against the embedded H2 schema: each employee filter must stay on
+ * the index it was designed for instead of falling back to a table scan. The plans are for the SQL
+ * Hibernate actually generates, captured by the statement counter, with the filter values bound in
+ * the order the specifications are combined.
+ */
+@SpringBootTest
+class EmployeeQueryPlanTest {
+
+    private static final BigDecimal MIN_SALARY = new BigDecimal("50000");
+    private static final BigDecimal MAX_SALARY = new BigDecimal("90000");
+    private static final int LIMIT = 50;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void namePrefixUsesLowerCasedNameIndex() {
+        assertQueryPlans(null, null, null, "Jo", plan -> assertThat(plan)
+                .contains("IDX_EMPLOYEES_NAME_LOWER: NAME_LOWER >= 'jo'")
+                .contains("\"NAME_LOWER\" LIKE ?1 ESCAPE '\\'"));
+    }
+
+    @Test
+    void departmentUsesDepartmentSalaryIndex() {
+        assertQueryPlans("Engineering", null, null, null, plan -> assertThat(plan)
+                .contains("IDX_EMPLOYEES_DEPARTMENT_SALARY: DEPARTMENT = ?1"));
+    }
+
+    @Test
+    void departmentAndSalaryRangeUseDepartmentSalaryIndex() {
+        assertQueryPlans("Engineering", MIN_SALARY, MAX_SALARY, null, plan -> assertThat(plan)
+                .containsPattern("IDX_EMPLOYEES_DEPARTMENT_SALARY: [^*]*DEPARTMENT = \\?1")
+                .containsPattern("IDX_EMPLOYEES_DEPARTMENT_SALARY: [^*]*SALARY >= \\?2"));
+    }
+
+    @Test
+    void salaryRangeUsesSalaryIndex() {
+        assertQueryPlans(null, MIN_SALARY, MAX_SALARY, null, plan -> assertThat(plan)
+                .containsPattern("IDX_EMPLOYEES_SALARY: SALARY >= \\?1\\s+AND SALARY <= \\?2"));
+    }
+
+    @Test
+    void departmentAndNamePrefixUseDepartmentSalaryIndex() {
+        assertQueryPlans("Engineering", null, null, "Jo", plan -> assertThat(plan)
+                .contains("IDX_EMPLOYEES_DEPARTMENT_SALARY: DEPARTMENT = ?1")
+                .contains("\"NAME_LOWER\" LIKE ?2 ESCAPE '\\'"));
+    }
+
+    @Test
+    void departmentSalaryRangeAndNamePrefixUseDepartmentSalaryIndex() {
+        assertQueryPlans("Engineering", MIN_SALARY, MAX_SALARY, "Jo", plan -> assertThat(plan)
+                .containsPattern("IDX_EMPLOYEES_DEPARTMENT_SALARY: [^*]*DEPARTMENT = \\?1")
+                .containsPattern("IDX_EMPLOYEES_DEPARTMENT_SALARY: [^*]*SALARY >= \\?2")
+                .contains("\"NAME_LOWER\" LIKE ?4 ESCAPE '\\'"));
+    }
+
+    @Test
+    void salaryRangeAndNamePrefixUseSalaryIndex() {
+        assertQueryPlans(null, MIN_SALARY, MAX_SALARY, "Jo", plan -> assertThat(plan)
+                .containsPattern("IDX_EMPLOYEES_SALARY: SALARY >= \\?1\\s+AND SALARY <= \\?2")
+                .contains("\"NAME_LOWER\" LIKE ?3 ESCAPE '\\'"));
+    }
+
+    @Test
+    void emailLookupUsesUniqueIndex() {
+        String sql = generatedSql(() -> employeeRepository.findByEmail("john.doe@example.com"));
+
+        assertThat(plan(sql, List.of("john.doe@example.com"))).doesNotContain("tableScan");
+    }
+
+    // Plans both the entity query and its sparse fieldset variant for one combination of filters
+    private void assertQueryPlans(String department, BigDecimal minSalary, BigDecimal maxSalary, String namePrefix,
+                                  Consumer<String> assertions) {
+        List<Object> parameters = new ArrayList<>();
+        if (department != null) {
+            parameters.add(department);
+        }
+        if (minSalary != null) {
+            parameters.add(minSalary);
+        }
+        if (maxSalary != null) {
+            parameters.add(maxSalary);
+        }
+        if (namePrefix != null) {
+            parameters.add(namePrefix.toLowerCase(Locale.ROOT) + "%");
+        }
+        parameters.add(LIMIT);
+
+        List<String> statements = List.of(
+                generatedSql(() -> employeeService.queryEmployees(department, minSalary, maxSalary, namePrefix,
+                        Sort.by("salary").and(Sort.by("id")), LIMIT)),
+                generatedSql(() -> employeeService.queryEmployeeFields(department, minSalary, maxSalary, namePrefix,
+                        Sort.by("id"), LIMIT, List.of("id", "name"))));
+        for (String sql : statements) {
+            if (namePrefix != null) {
+                assertThat(sql).as(sql).contains("name_lower like ? escape '\\'");
+            }
+            String plan = plan(sql, parameters);
+            assertThat(plan).as(sql).doesNotContain("tableScan");
+            assertions.accept(plan);
+        }
+    }
+
+    private static String generatedSql(Runnable query) {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            query.run();
+            assertThat(scope.getCount()).isEqualTo(1);
+            return scope.mostRepeated().getKey();
+        }
+    }
+
+    // LIKE only becomes an index range once H2 can see the pattern, so the parameters are bound
+    private String plan(String sql, List<Object> parameters) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    explain.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet result = explain.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+    }
+}
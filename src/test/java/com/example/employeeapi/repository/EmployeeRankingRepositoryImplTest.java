@@ -0,0 +1,78 @@
+package com.example.employeeapi.repository;
+
+import com.example.employeeapi.entity.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EmployeeRankingRepositoryImplTest {
+
+    private static final String DEPARTMENT = "Percentile Test";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeRankingRepositoryImpl rankingRepository;
+
+    private final List<Employee> saved = new ArrayList<>();
+
+    @BeforeEach
+    void createDepartmentOfThirty() {
+        for (int i = 1; i <= 30; i++) {
+            saved.add(employeeRepository.save(new Employee("Percentile " + i, "percentile-" + i + "@example.com",
+                    DEPARTMENT, BigDecimal.valueOf(1000L * i))));
+        }
+    }
+
+    @AfterEach
+    void removeDepartment() {
+        employeeRepository.deleteAll(saved);
+        ReflectionTestUtils.setField(rankingRepository, "strategy", "auto");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"window", "heap"})
+    @Transactional(readOnly = true)
+    void tenPercentOfThirtyIsThree(String strategy) {
+        ReflectionTestUtils.setField(rankingRepository, "strategy", strategy);
+
+        Map<String, List<Employee>> ranking = rankingRepository.findSalaryPercentilePerDepartment(10, Sort.Direction.DESC);
+
+        assertThat(ranking.get(DEPARTMENT)).extracting(Employee::getName)
+                .containsExactly("Percentile 30", "Percentile 29", "Percentile 28");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"window", "heap"})
+    @Transactional(readOnly = true)
+    void fractionsOfARowRoundUp(String strategy) {
+        ReflectionTestUtils.setField(rankingRepository, "strategy", strategy);
+
+        // 30 x 33.4% = 10.02 employees
+        Map<String, List<Employee>> ranking = rankingRepository.findSalaryPercentilePerDepartment(33.4, Sort.Direction.ASC);
+
+        assertThat(ranking.get(DEPARTMENT)).hasSize(11);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {10, 20, 30, 70, 100})
+    void wholeRowsAreNotRoundedUp(double percent) {
+        assertThat(EmployeeRankingRepositoryImpl.percentileCount(30, BigDecimal.valueOf(percent)))
+                .isEqualTo((int) (percent * 30 / 100));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.AuditDailySummary;
+import com.example.employeeapi.entity.AuditLog;
+import com.example.employeeapi.entity.JobLock;
+import com.example.employeeapi.repository.AuditDailySummaryRepository;
+import com.example.employeeapi.repository.AuditLogRepository;
+import com.example.employeeapi.repository.JobLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AuditRetentionServiceTest {
+
+    private static final LocalDateTime OLD = LocalDate.now().minusDays(200).atTime(10, 0);
+
+    @Autowired
+    private AuditRetentionService retentionService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        jobLockRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedPassesAddToOneSummaryRow() {
+        saveOldEntries(3);
+        assertThat(retentionService.runRetention()).isEqualTo(3);
+        saveOldEntries(2);
+        assertThat(retentionService.runRetention()).isEqualTo(2);
+
+        List<AuditDailySummary> summaries = summaryRepository.findBySummaryDateBetweenOrderBySummaryDateAscIdAsc(
+                OLD.toLocalDate(), OLD.toLocalDate());
+        assertThat(summaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getEntryCount()).isEqualTo(5);
+            assertThat(summary.getFirstTimestamp()).isEqualTo(OLD);
+            assertThat(summary.getLastTimestamp()).isEqualTo(OLD.plusMinutes(2));
+        });
+    }
+
+    @Test
+    void summaryKeyIsUnique() {
+        summaryRepository.saveAndFlush(new AuditDailySummary(OLD.toLocalDate(), "Employee", "admin", "CREATE"));
+
+        assertThatThrownBy(() -> summaryRepository.saveAndFlush(
+                new AuditDailySummary(OLD.toLocalDate(), "Employee", "admin", "CREATE")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void skipsWhileAnotherNodeHoldsTheLock() {
+        saveOldEntries(1);
+        JobLock held = new JobLock("audit-retention");
+        held.setLockedBy("other-node");
+        held.setLockedUntil(System.currentTimeMillis() + 60_000);
+        jobLockRepository.save(held);
+
+        assertThat(retentionService.runRetention()).isEqualTo(-1);
+
+        // Once the other node's lease runs out the next pass proceeds
+        held.setLockedUntil(System.currentTimeMillis() - 1);
+        jobLockRepository.save(held);
+        assertThat(retentionService.runRetention()).isEqualTo(1);
+    }
+
+    private void saveOldEntries(int count) {
+        for (int i = 0; i < count; i++) {
+            AuditLog entry = new AuditLog("CREATE", "RetentionTest", (long) i, "admin");
+            entry.setTimestamp(OLD.plusMinutes(i));
+            auditLogRepository.save(entry);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.controller.EmployeeController;
+import com.example.employeeapi.entity.AuditLog;
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.entity.User;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.AuditLogRepository;
+import com.example.employeeapi.repository.EmployeeRepository;
+import com.example.employeeapi.repository.UserRepository;
+import com.example.employeeapi.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many virtual threads race on the same unique keys: per contested email or username exactly one
+ * write wins, every other one is rejected as a duplicate, and only the winners are audited. Creates
+ * go through the controller, which is where employee creates are audited.
+ */
+@SpringBootTest
+class ConcurrentWritesTest {
+
+    private static final int CONTESTED = 8;
+    private static final int CALLERS = 12;
+
+    @Autowired
+    private EmployeeController employeeController;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final String run = Long.toString(System.nanoTime(), 36);
+    private final ConcurrentLinkedQueue<Long> employees = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> users = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void removeWrites() {
+        employees.forEach(employeeService::deleteEmployee);
+        users.forEach(userService::deleteUser);
+    }
+
+    @Test
+    void racingEmployeeCreatesHaveOneWinnerPerEmail() throws Exception {
+        String token = jwtUtil.generateToken("admin", Set.of(Role.ADMIN));
+        List<Outcome> outcomes = race((key, caller) -> asAdmin(token, () -> {
+            ResponseEntity<?> response = employeeController.createEmployee(
+                    new Employee("Race " + caller, email("create", key), "Engineering", new BigDecimal("1000.00")));
+            if (response.getStatusCode() == HttpStatus.CONFLICT) {
+                return Outcome.CONFLICT;
+            }
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            employees.add(((Employee) response.getBody()).getId());
+            return Outcome.WON;
+        }));
+
+        assertOneWinnerPerKey(outcomes);
+        for (int key = 0; key < CONTESTED; key++) {
+            assertThat(employeeRepository.existsByEmail(email("create", key))).isTrue();
+        }
+        assertThat(audited("CREATE")).isEqualTo(CONTESTED);
+    }
+
+    @Test
+    void racingEmployeeUpdatesOntoOneEmailHaveOneWinner() throws Exception {
+        // Every caller moves an employee of its own onto the contested email
+        List<Long> pool = new ArrayList<>();
+        for (int i = 0; i < CONTESTED * CALLERS; i++) {
+            Employee employee = employeeService.createEmployee(
+                    new Employee("Race pool " + i, email("pool", i), "Engineering", new BigDecimal("1000.00")));
+            pool.add(employee.getId());
+            employees.add(employee.getId());
+        }
+
+        List<Outcome> outcomes = race((key, caller) -> duplicateAsConflict(() -> employeeService.updateEmployee(
+                pool.get(key * CALLERS + caller),
+                new Employee("Race " + caller, email("update", key), "Engineering", new BigDecimal("2000.00")))));
+
+        assertOneWinnerPerKey(outcomes);
+        for (int key = 0; key < CONTESTED; key++) {
+            assertThat(employeeRepository.findByEmail(email("update", key))).isPresent();
+        }
+        assertThat(audited("UPDATE")).isEqualTo(CONTESTED);
+    }
+
+    @Test
+    void racingUserCreatesHaveOneWinnerPerUsernameAndPerEmail() throws Exception {
+        List<Outcome> byUsername = race((key, caller) -> duplicateAsConflict(() -> users.add(userService.createUser(
+                user(username("same", key), email("user-" + caller, key))).getId())));
+        List<Outcome> byEmail = race((key, caller) -> duplicateAsConflict(() -> users.add(userService.createUser(
+                user(username("own-" + caller, key), email("user", key))).getId())));
+
+        assertOneWinnerPerKey(byUsername);
+        assertOneWinnerPerKey(byEmail);
+        for (int key = 0; key < CONTESTED; key++) {
+            assertThat(userRepository.existsByUsername(username("same", key))).isTrue();
+            assertThat(userRepository.existsByEmail(email("user", key))).isTrue();
+        }
+        assertThat(users).hasSize(2 * CONTESTED);
+    }
+
+    // CALLERS virtual threads per contested key, all released at once; outcomes in key order
+    private List<Outcome> race(Write write) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int key = 0; key < CONTESTED; key++) {
+                for (int caller = 0; caller < CALLERS; caller++) {
+                    int k = key;
+                    int c = caller;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return write.attempt(k, c);
+                    }));
+                }
+            }
+            start.countDown();
+        }
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> result : results) {
+            // Rethrows anything other than a duplicate rejection
+            outcomes.add(result.get(60, TimeUnit.SECONDS));
+        }
+        return outcomes;
+    }
+
+    private static void assertOneWinnerPerKey(List<Outcome> outcomes) {
+        for (int key = 0; key < CONTESTED; key++) {
+            Map<Outcome, Long> counts = outcomes.subList(key * CALLERS, (key + 1) * CALLERS).stream()
+                    .collect(Collectors.groupingBy(outcome -> outcome, Collectors.counting()));
+            assertThat(counts).as("key %d", key).containsEntry(Outcome.WON, 1L).containsEntry(Outcome.CONFLICT, CALLERS - 1L);
+        }
+    }
+
+    // Audit entries of this action for the employees this test wrote
+    private long audited(String action) {
+        List<AuditLog> entries = auditLogRepository.findAll();
+        return entries.stream()
+                .filter(entry -> "Employee".equals(entry.getEntityName()) && action.equals(entry.getAction()))
+                .filter(entry -> employees.contains(entry.getEntityId()))
+                .count();
+    }
+
+    private static Outcome duplicateAsConflict(Runnable write) {
+        try {
+            write.run();
+            return Outcome.WON;
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("already exists")) {
+                return Outcome.CONFLICT;
+            }
+            throw e;
+        }
+    }
+
+    // The controller's role check reads the request; the audit reads the security context
+    private static <T> T asAdmin(String token, Callable<T> write) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/employees");
+        request.addHeader("Authorization", "Bearer " + token);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+        try {
+            return write.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private User user(String username, String email) {
+        return new User(username, "password", email, "Race User", EnumSet.of(Role.EMPLOYEE));
+    }
+
+    private String username(String group, int key) {
+        return "race-" + run + "-" + group + "-" + key;
+    }
+
+    private String email(String group, int key) {
+        return username(group, key) + "@example.com";
+    }
+
+    private enum Outcome {
+        WON, CONFLICT
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        Outcome attempt(int key, int caller) throws Exception;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.enums.ChangeType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeChangeLogTest {
+
+    @Test
+    void resumesAfterACursorFromThisStart() {
+        EmployeeChangeLog log = logWith(5);
+
+        EmployeeChangeLog.Batch batch = log.read(log.cursor(3), 100);
+
+        assertThat(batch.isReset()).isFalse();
+        assertThat(batch.getEvents()).extracting(EmployeeChangeEvent::getSequence).containsExactly(4L, 5L);
+        assertThat(batch.getCursor()).isEqualTo(log.cursor(5));
+    }
+
+    @Test
+    void cursorsFromAnotherStartResetWhetherBehindOrAhead() {
+        EmployeeChangeLog before = logWith(10);
+        EmployeeChangeLog restarted = logWith(5);
+
+        for (String cursor : new String[]{before.cursor(2), before.cursor(10), "7", "garbage"}) {
+            EmployeeChangeLog.Batch batch = restarted.read(cursor, 100);
+
+            assertThat(batch.isReset()).as(cursor).isTrue();
+            assertThat(batch.getEvents()).as(cursor).extracting(EmployeeChangeEvent::getSequence)
+                    .containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(batch.getCursor()).as(cursor).isEqualTo(restarted.cursor(5));
+        }
+    }
+
+    @Test
+    void resetsWhenTheCursorFellOutOfTheBuffer() {
+        EmployeeChangeLog log = new EmployeeChangeLog(4);
+        publish(log, 10);
+
+        EmployeeChangeLog.Batch batch = log.read(log.cursor(1), 100);
+
+        assertThat(batch.isReset()).isTrue();
+        assertThat(batch.getEvents()).extracting(EmployeeChangeEvent::getSequence).containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    private static EmployeeChangeLog logWith(int events) {
+        EmployeeChangeLog log = new EmployeeChangeLog(64);
+        publish(log, events);
+        return log;
+    }
+
+    private static void publish(EmployeeChangeLog log, int events) {
+        for (long id = 1; id <= events; id++) {
+            log.publish(ChangeType.UPDATE, id, 1L);
+        }
+    }
+}
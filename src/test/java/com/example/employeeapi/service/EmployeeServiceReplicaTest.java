@@ -0,0 +1,110 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.routing.ReplicaLagMonitor;
+import com.example.employeeapi.routing.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-your-writes with coalesced reads, against two embedded databases: the primary, and a replica
+ * that the lag monitor reports as caught up but that never receives any writes. Reads linger for a
+ * minute so a result shared on the replica stays joinable for the whole test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ryw-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.nodes[0].name=lagging",
+        "app.datasource.replicas.nodes[0].url=jdbc:h2:mem:ryw-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas.probe-interval-ms=3600000",
+        "app.coalescing.linger-ms=60000"
+})
+@DirtiesContext
+class EmployeeServiceReplicaTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private JdbcTemplate replica;
+    private Long id;
+
+    @BeforeEach
+    void setUpLaggingReplica() {
+        replica = new JdbcTemplate(replicaRoutingDataSource.getReplicas().get(0).getDataSource());
+        replica.execute("CREATE TABLE IF NOT EXISTS employees (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                + "name_lower VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, department VARCHAR(255) NOT NULL, "
+                + "salary NUMERIC(10, 2) NOT NULL, version BIGINT NOT NULL)");
+        // A heartbeat from the future keeps the replica in rotation however stale its data is
+        replica.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat BIGINT NOT NULL)");
+        replica.update("MERGE INTO replication_heartbeat (id, beat) KEY (id) VALUES (1, ?)", Long.MAX_VALUE);
+        replicaLagMonitor.probe();
+        assertThat(replicaRoutingDataSource.getReplicas().get(0).isHealthy()).isTrue();
+
+        Employee employee = employeeService.createEmployee(new Employee("Before Rename", "ryw@example.com",
+                "Engineering", new BigDecimal("50000.00")));
+        id = employee.getId();
+        replica.update("INSERT INTO employees VALUES (?, 'Before Rename', 'before rename', 'ryw@example.com', "
+                + "'Engineering', 50000.00, ?)", id, employee.getVersion());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        employeeService.deleteEmployee(id);
+        replica.update("DELETE FROM employees");
+    }
+
+    @Test
+    void writerSeesTheirUpdateWhileAStaleReadOfTheSameEmployeeLingers() {
+        actAs("writer");
+        employeeService.updateEmployee(id, new Employee("After Rename", "ryw@example.com",
+                "Engineering", new BigDecimal("50000.00")));
+
+        actAs("viewer");
+        assertThat(employeeService.getEmployeeById(id)).map(Employee::getName).hasValue("Before Rename");
+        assertThat(employeeService.getEmployeesByDepartment("Engineering"))
+                .filteredOn(employee -> employee.getId().equals(id))
+                .extracting(Employee::getName).containsExactly("Before Rename");
+
+        actAs("writer");
+        assertThat(employeeService.getEmployeeById(id)).map(Employee::getName).hasValue("After Rename");
+        assertThat(employeeService.getEmployeesByDepartment("Engineering"))
+                .filteredOn(employee -> employee.getId().equals(id))
+                .extracting(Employee::getName).containsExactly("After Rename");
+    }
+
+    @Test
+    void readersOutsideTheStickyWindowStillShareReads() {
+        actAs("viewer");
+        assertThat(employeeService.getEmployeeById(id)).map(Employee::getName).hasValue("Before Rename");
+        replica.update("UPDATE employees SET name = 'Replicated Later' WHERE id = ?", id);
+
+        // Joins the lingering read instead of querying the replica again
+        actAs("other-viewer");
+        assertThat(replicaRoutingDataSource.isCurrentUserSticky()).isFalse();
+        assertThat(employeeService.getEmployeeById(id)).map(Employee::getName).hasValue("Before Rename");
+    }
+
+    private static void actAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
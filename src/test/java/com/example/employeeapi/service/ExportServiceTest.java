@@ -0,0 +1,58 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExportServiceTest {
+
+    private static final String DEPARTMENT = "Export Test";
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private final List<Employee> saved = new ArrayList<>();
+
+    @AfterEach
+    void removeEmployees() {
+        employeeRepository.deleteAll(saved);
+    }
+
+    @Test
+    void neutralizesFormulaTriggersInTextFields() throws Exception {
+        saved.add(employeeRepository.save(new Employee("=HYPERLINK(\"http://example.com\",\"x\")",
+                "formula@example.com", DEPARTMENT, BigDecimal.TEN)));
+        saved.add(employeeRepository.save(new Employee("+1", "plus@example.com", DEPARTMENT, BigDecimal.TEN)));
+        saved.add(employeeRepository.save(new Employee("-1", "minus@example.com", DEPARTMENT, BigDecimal.TEN)));
+        saved.add(employeeRepository.save(new Employee("@SUM(A1)", "at@example.com", DEPARTMENT, BigDecimal.TEN)));
+        saved.add(employeeRepository.save(new Employee("Plain Name", "plain@example.com", DEPARTMENT, BigDecimal.TEN)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportEmployees(DEPARTMENT, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(csv)
+                .contains(",\"'=HYPERLINK(\"\"http://example.com\"\",\"\"x\"\")\",")
+                .contains(",'+1,")
+                .contains(",'-1,")
+                .contains(",'@SUM(A1),")
+                .contains(",Plain Name,")
+                .doesNotContain(",=")
+                .doesNotContain(",@");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+    @Test
+    void joinedCallersShareTheQueryButNotTheResult() throws Exception {
+        RequestCoalescer<Long, Optional<Employee>> coalescer = new RequestCoalescer<>("test", 1_000,
+                new SimpleMeterRegistry(), employee -> employee.map(Employee::copy));
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Employee>> leader = CompletableFuture.supplyAsync(() -> coalescer.execute(1L, () -> {
+            queries.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Optional.of(new Employee("Ada", "ada@example.com", "Engineering", BigDecimal.TEN));
+        }));
+        loading.await();
+        CompletableFuture<Optional<Employee>> follower = CompletableFuture.supplyAsync(() -> coalescer.execute(1L, () -> {
+            queries.incrementAndGet();
+            return Optional.empty();
+        }));
+        release.countDown();
+
+        Employee first = leader.get().orElseThrow();
+        first.setName("Changed by the leader");
+        Employee second = follower.get().orElseThrow();
+        Employee lingering = coalescer.execute(1L, Optional::empty).orElseThrow();
+
+        assertThat(queries).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("Ada");
+        assertThat(lingering.getName()).isEqualTo("Ada");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
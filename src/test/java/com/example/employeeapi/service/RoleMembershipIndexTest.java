@@ -0,0 +1,48 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleMembershipIndexTest {
+
+    @Test
+    void staleBeforeDoesNotLeaveRolesBehind() {
+        RoleMembershipIndex index = new RoleMembershipIndex();
+        index.onDirectoryLoaded(List.of(new UserSnapshot(1L, "ada", "Ada", true, EnumSet.of(Role.HR))));
+
+        // The writer's snapshot missed a concurrent change to HR
+        index.onUserChanged(new UserSnapshot(1L, "ada", "Ada", true, EnumSet.of(Role.EMPLOYEE)),
+                new UserSnapshot(1L, "ada", "Ada", true, EnumSet.of(Role.MANAGER)));
+
+        assertThat(index.activeUserIds(Set.of(Role.HR), false)).isEmpty();
+        assertThat(index.activeUserIds(Set.of(Role.EMPLOYEE), false)).isEmpty();
+        assertThat(index.activeUserIds(Set.of(Role.MANAGER), false)).containsExactly(1L);
+    }
+
+    @Test
+    void staleBeforeDoesNotKeepADeactivatedUserActive() {
+        RoleMembershipIndex index = new RoleMembershipIndex();
+        index.onDirectoryLoaded(List.of(new UserSnapshot(1L, "ada", "Ada", true, EnumSet.of(Role.HR))));
+
+        index.onUserChanged(new UserSnapshot(1L, "ada", "Ada", false, EnumSet.of(Role.HR)),
+                new UserSnapshot(1L, "ada", "Ada", false, EnumSet.of(Role.HR)));
+
+        assertThat(index.countActiveUsers(Set.of(Role.HR), false)).isZero();
+    }
+
+    @Test
+    void deleteRemovesEveryMembership() {
+        RoleMembershipIndex index = new RoleMembershipIndex();
+        index.onDirectoryLoaded(List.of(new UserSnapshot(1L, "ada", "Ada", true, EnumSet.of(Role.HR, Role.ADMIN))));
+
+        index.onUserChanged(new UserSnapshot(1L, "ada", "Ada", true, EnumSet.of(Role.HR)), null);
+
+        assertThat(index.activeUserIds(EnumSet.allOf(Role.class), false)).isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.Employee;
+import com.example.employeeapi.entity.User;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.EmployeeRepository;
+import com.example.employeeapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Duplicates written straight through the repositories, past the services' existence checks, and
+ * other integrity violations that must not be reported as duplicates
+ */
+@SpringBootTest
+class UniqueConstraintsTest {
+
+    private static final String LONG_NAME = "x".repeat(300);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void recognisesTheEmployeeEmailConstraint() {
+        DataIntegrityViolationException e = catchThrowableOfType(() -> employeeRepository.saveAndFlush(
+                new Employee("Duplicate", "john.doe@example.com", "Engineering", new BigDecimal("1.00"))),
+                DataIntegrityViolationException.class);
+
+        assertThat(UniqueConstraints.isViolated(e, Employee.EMAIL_CONSTRAINT)).isTrue();
+        assertThat(UniqueConstraints.isViolated(e, User.EMAIL_CONSTRAINT)).isFalse();
+    }
+
+    @Test
+    void tellsTheUserConstraintsApart() {
+        DataIntegrityViolationException username = catchThrowableOfType(() -> userRepository.saveAndFlush(
+                new User("admin", "password", "not-admin@example.com", "Duplicate", EnumSet.of(Role.EMPLOYEE))),
+                DataIntegrityViolationException.class);
+        DataIntegrityViolationException email = catchThrowableOfType(() -> userRepository.saveAndFlush(
+                new User("not-admin", "password", "admin@company.com", "Duplicate", EnumSet.of(Role.EMPLOYEE))),
+                DataIntegrityViolationException.class);
+
+        assertThat(UniqueConstraints.isViolated(username, User.USERNAME_CONSTRAINT)).isTrue();
+        assertThat(UniqueConstraints.isViolated(username, User.EMAIL_CONSTRAINT)).isFalse();
+        assertThat(UniqueConstraints.isViolated(email, User.EMAIL_CONSTRAINT)).isTrue();
+        assertThat(UniqueConstraints.isViolated(email, User.USERNAME_CONSTRAINT)).isFalse();
+    }
+
+    @Test
+    void otherViolationsAreNotReportedAsDuplicateEmails() {
+        assertThatThrownBy(() -> employeeService.createEmployee(
+                new Employee(LONG_NAME, "too-long-create@example.com", "Engineering", new BigDecimal("1.00"))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(employeeRepository.existsByEmail("too-long-create@example.com")).isFalse();
+
+        Employee employee = employeeService.createEmployee(
+                new Employee("Too Long", "too-long-update@example.com", "Engineering", new BigDecimal("1.00")));
+        try {
+            assertThatThrownBy(() -> employeeService.updateEmployee(employee.getId(),
+                    new Employee(LONG_NAME, "too-long-renamed@example.com", "Engineering", new BigDecimal("1.00"))))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+        } finally {
+            employeeService.deleteEmployee(employee.getId());
+        }
+
+        assertThatThrownBy(() -> userService.createUser(
+                new User("too-long", "password", "too-long-user@example.com", LONG_NAME, EnumSet.of(Role.EMPLOYEE))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.User;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many more concurrent user writes than connections: directory updates after commit must not
+ * need a connection of their own, or writers waiting on each other drain the pool. A short
+ * connection timeout turns such a wait into a failed write instead of a slow test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-pool;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@DirtiesContext
+class UserServiceConnectionPoolTest {
+
+    private static final int WRITERS = 24;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void removeUsers() {
+        created.forEach(userService::deleteUser);
+    }
+
+    @Test
+    void concurrentWritesBeyondThePoolSizeAllSucceed() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            int writer = t;
+            writes.add(executor.submit(() -> {
+                start.await();
+                User user = userService.createUser(new User("pool-" + writer, "password",
+                        "pool-" + writer + "@example.com", "Pool Writer " + writer, EnumSet.of(Role.EMPLOYEE)));
+                created.add(user.getId());
+                userService.updateUserRoles(user.getId(), EnumSet.of(Role.MANAGER, Role.EMPLOYEE));
+                userService.deactivateUser(user.getId());
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        for (Future<?> write : writes) {
+            // Rethrows the first failed write
+            write.get();
+        }
+
+        assertThat(created).hasSize(WRITERS);
+        for (Long id : created) {
+            assertThat(userService.getUsersByRoles(Set.of(Role.MANAGER), false))
+                    .noneMatch(user -> user.getId().equals(id));
+        }
+        assertThat(userService.getTotalUserCount()).isEqualTo(userRepository.count());
+        assertThat(userService.getActiveUserCount()).isEqualTo(userRepository.countByActiveTrue());
+    }
+}
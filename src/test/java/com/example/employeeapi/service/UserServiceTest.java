@@ -0,0 +1,102 @@
+package com.example.employeeapi.service;
+
+import com.example.employeeapi.entity.User;
+import com.example.employeeapi.enums.Role;
+import com.example.employeeapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserServiceTest {
+
+    private static final List<Set<Role>> ROLE_SETS = List.of(
+            EnumSet.of(Role.EMPLOYEE), EnumSet.of(Role.MANAGER, Role.EMPLOYEE), EnumSet.of(Role.HR));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void removeUsers() {
+        created.forEach(userService::deleteUser);
+    }
+
+    @Test
+    void statisticsMatchTheDatabaseAfterConcurrentUpdatesOfOneUser() throws Exception {
+        User user = userService.createUser(new User("concurrent-stats", "password", "concurrent-stats@example.com",
+                "Concurrent Stats", EnumSet.of(Role.EMPLOYEE)));
+        created.add(user.getId());
+
+        hammer(user.getId());
+
+        assertThat(userService.getTotalUserCount()).isEqualTo(userRepository.count());
+        assertThat(userService.getActiveUserCount()).isEqualTo(userRepository.countByActiveTrue());
+        for (Role role : Role.values()) {
+            assertThat(userService.getUserCountByRole(role)).as(role.name())
+                    .isEqualTo(userRepository.countActiveByRole(role));
+        }
+    }
+
+    @Test
+    void roleIndexMatchesTheDatabaseAfterConcurrentUpdatesOfOneUser() throws Exception {
+        User user = userService.createUser(new User("concurrent-roles", "password", "concurrent-roles@example.com",
+                "Concurrent Roles", EnumSet.of(Role.EMPLOYEE)));
+        created.add(user.getId());
+
+        hammer(user.getId());
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        for (Role role : Role.values()) {
+            boolean listed = userService.getUsersByRoles(Set.of(role), false).stream()
+                    .anyMatch(listedUser -> listedUser.getId().equals(user.getId()));
+            assertThat(listed).as(role.name()).isEqualTo(stored.isActive() && stored.getRoles().contains(role));
+            assertThat(userService.getUserCountByRoles(Set.of(role), false)).as(role.name())
+                    .isEqualTo(userRepository.countActiveByRole(role));
+        }
+    }
+
+    // Callers race role changes and (de)activations on the same user; some writes may fail, which is fine
+    private void hammer(Long id) throws InterruptedException {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int caller = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 25; i++) {
+                    try {
+                        switch ((caller + i) % 3) {
+                            case 0 -> userService.updateUserRoles(id, ROLE_SETS.get((caller * 7 + i) % ROLE_SETS.size()));
+                            case 1 -> userService.deactivateUser(id);
+                            default -> userService.activateUser(id);
+                        }
+                    } catch (RuntimeException ignored) {
+                        // A conflicting concurrent write
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.employeeapi.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claims written before a crash kept the employee from reaching its shard
+ */
+class EmployeeEmailIndexTest {
+
+    private ShardRoutingDataSource shards;
+
+    @BeforeEach
+    void createShards() {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:email-index-" + shard + ";DB_CLOSE_DELAY=-1");
+            dataSources.add(dataSource);
+            new JdbcTemplate(dataSource).execute("CREATE TABLE employees (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL)");
+        }
+        shards = new ShardRoutingDataSource(dataSources);
+    }
+
+    @AfterEach
+    void dropShards() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            new JdbcTemplate(shards.getShard(shard)).execute("DROP ALL OBJECTS");
+        }
+        shards.destroy();
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItTimesOut() {
+        EmployeeEmailIndex index = index(0);
+        assertThat(index.reserve("crashed@example.com", 1)).isTrue();
+
+        assertThat(index.reserve("crashed@example.com", 0)).isTrue();
+        assertThat(index.shardOf("crashed@example.com")).isEqualTo(OptionalInt.of(0));
+    }
+
+    @Test
+    void recentClaimIsNotTakenOver() {
+        EmployeeEmailIndex index = index(60_000);
+        assertThat(index.reserve("in-flight@example.com", 1)).isTrue();
+
+        assertThat(index.reserve("in-flight@example.com", 0)).isFalse();
+        assertThat(index.shardOf("in-flight@example.com")).isEqualTo(OptionalInt.of(1));
+    }
+
+    @Test
+    void claimOfAStoredEmployeeIsNeverTakenOver() {
+        EmployeeEmailIndex index = index(0);
+        assertThat(index.reserve("stored@example.com", 1)).isTrue();
+        new JdbcTemplate(shards.getShard(1)).update("INSERT INTO employees (id, email) VALUES (1, 'stored@example.com')");
+
+        assertThat(index.reserve("stored@example.com", 0)).isFalse();
+        assertThat(index.shardOf("stored@example.com")).isEqualTo(OptionalInt.of(1));
+    }
+
+    private EmployeeEmailIndex index(long reservationTimeoutMs) {
+        EmployeeEmailIndex index = new EmployeeEmailIndex(shards, reservationTimeoutMs);
+        index.createTable();
+        return index;
+    }
+}
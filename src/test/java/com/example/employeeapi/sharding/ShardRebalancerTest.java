@@ -0,0 +1,99 @@
+package com.example.employeeapi.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enabling sharding over an existing database: every employee starts out on shard 0
+ */
+class ShardRebalancerTest {
+
+    private ShardRoutingDataSource shards;
+    private ShardRouter router;
+    private EmployeeEmailIndex emailIndex;
+
+    @BeforeEach
+    void createShards() {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:rebalance-" + shard + ";DB_CLOSE_DELAY=-1");
+            dataSources.add(dataSource);
+            new JdbcTemplate(dataSource).execute("CREATE TABLE employees (id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR(255) NOT NULL, name_lower VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL UNIQUE, "
+                    + "department VARCHAR(255) NOT NULL, salary NUMERIC(10, 2) NOT NULL, version BIGINT NOT NULL)");
+        }
+        shards = new ShardRoutingDataSource(dataSources);
+        router = new ShardRouter(3, Map.of("Engineering", 2, "Sales", 1, "HR", 0), 1_000_000);
+        emailIndex = new EmployeeEmailIndex(shards, 60_000);
+        emailIndex.createTable();
+    }
+
+    @AfterEach
+    void dropShards() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            new JdbcTemplate(shards.getShard(shard)).execute("DROP ALL OBJECTS");
+        }
+        shards.destroy();
+    }
+
+    @Test
+    void movesEveryEmployeeToItsDepartmentsShard() {
+        JdbcTemplate shardZero = jdbc(0);
+        for (int i = 1; i <= 7; i++) {
+            String department = List.of("Engineering", "Sales", "HR").get(i % 3);
+            shardZero.update("INSERT INTO employees VALUES (?, ?, ?, ?, ?, 1000.00, 3)",
+                    i, "Employee " + i, "employee " + i, "employee" + i + "@example.com", department);
+            emailIndex.reserve("employee" + i + "@example.com", 0);
+        }
+
+        long moved = new ShardRebalancer(shards, router, emailIndex, 2).rebalance();
+
+        assertThat(moved).isEqualTo(5);
+        for (String department : List.of("Engineering", "Sales", "HR")) {
+            int shard = router.shardFor(department);
+            for (int other = 0; other < 3; other++) {
+                Long count = jdbc(other).queryForObject(
+                        "SELECT COUNT(*) FROM employees WHERE department = ?", Long.class, department);
+                assertThat(count).as(department + " on shard " + other).isEqualTo(
+                        other == shard ? (department.equals("Sales") ? 3L : 2L) : 0L);
+            }
+        }
+        // Ids, versions and the email index follow the rows
+        assertThat(jdbc(2).queryForObject("SELECT version FROM employees WHERE id = 3", Long.class)).isEqualTo(3);
+        assertThat(emailIndex.shardOf("employee3@example.com")).isEqualTo(OptionalInt.of(2));
+        assertThat(emailIndex.shardOf("employee1@example.com")).isEqualTo(OptionalInt.of(1));
+    }
+
+    @Test
+    void finishesARunThatStoppedAfterCopying() {
+        jdbc(0).update("INSERT INTO employees VALUES (1, 'Copied', 'copied', 'copied@example.com', 'Engineering', 1000.00, 1)");
+        jdbc(2).update("INSERT INTO employees VALUES (1, 'Copied', 'copied', 'copied@example.com', 'Engineering', 1000.00, 1)");
+
+        new ShardRebalancer(shards, router, emailIndex, 100).rebalance();
+
+        assertThat(jdbc(0).queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isZero();
+        assertThat(jdbc(2).queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void leavesAnAlreadyBalancedDatabaseAlone() {
+        jdbc(2).update("INSERT INTO employees VALUES (1, 'Placed', 'placed', 'placed@example.com', 'Engineering', 1000.00, 1)");
+
+        assertThat(new ShardRebalancer(shards, router, emailIndex, 100).rebalance()).isZero();
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shards.getShard(shard));
+    }
+}
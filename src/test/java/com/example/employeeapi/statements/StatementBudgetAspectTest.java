@@ -0,0 +1,82 @@
+package com.example.employeeapi.statements;
+
+import com.example.employeeapi.annotation.StatementBudget;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fail mode against handlers that run two statements on a budget of one
+ */
+class StatementBudgetAspectTest {
+
+    private final StatementBudgetAspect aspect = new StatementBudgetAspect(true);
+    private final StatementCounter counter = new StatementCounter();
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void failsReadsOverBudget() throws Throwable {
+        inRequest("GET");
+
+        assertThatThrownBy(() -> aspect.enforceBudget(handler(2, 0), budget()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void neverFailsWritesThatHaveAlreadyRun() throws Throwable {
+        for (String method : new String[]{"POST", "PUT", "DELETE"}) {
+            inRequest(method);
+
+            assertThat(aspect.enforceBudget(handler(2, 0), budget())).isEqualTo("done");
+        }
+    }
+
+    @Test
+    void handlersCanAllowForLargerRequests() throws Throwable {
+        inRequest("GET");
+
+        assertThat(aspect.enforceBudget(handler(2, 1), budget())).isEqualTo("done");
+        // The allowance ends with the call that was granted it
+        assertThatThrownBy(() -> aspect.enforceBudget(handler(2, 0), budget()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private ProceedingJoinPoint handler(int statements, int allowance) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(mock(Signature.class));
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            StatementBudgetAspect.allow(allowance);
+            for (int i = 0; i < statements; i++) {
+                counter.inspect("select 1");
+            }
+            return "done";
+        });
+        return joinPoint;
+    }
+
+    private static void inRequest(String method) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(method, "/")));
+    }
+
+    private static StatementBudget budget() throws NoSuchMethodException {
+        return StatementBudgetAspectTest.class.getDeclaredMethod("budgetedHandler").getAnnotation(StatementBudget.class);
+    }
+
+    @StatementBudget(1)
+    private static void budgetedHandler() {
+    }
+}